@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import lavalink.client.player.track.AudioTrack;
+import lavalink.client.player.track.DefaultAudioTrack;
+import lavalink.client.player.track.DefaultAudioTrackInfo;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import org.java_websocket.drafts.Draft_6455;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simulates how the node selection strategies spread bursts of new links, such as a shard reconnecting, over nodes
+ * whose stats only arrive once a minute. Each round places a burst of links through the load balancer of a
+ * {@link Lavalink} instance, like {@link Link#getNode(boolean)} does, after which every node reports its stats.
+ * Three out of four links start playing as soon as they are placed, the others stay idle.
+ * <p>
+ * Run with {@code ./gradlew simulateNodeSelection}. The arguments are the rounds and the links per burst.
+ */
+public class NodeSelectionSimulation {
+
+    /* The system load the nodes report, which makes up their CPU penalty */
+    private static final double[] SYSTEM_LOADS = {0.10, 0.20, 0.30, 0.60};
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int burst = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        Map<String, NodeSelectionStrategy> strategies = new LinkedHashMap<>();
+        strategies.put("minPenalty", NodeSelectionStrategy.minPenalty());
+        strategies.put("powerOfTwoChoices", NodeSelectionStrategy.powerOfTwoChoices());
+        strategies.put("weightedRandom", NodeSelectionStrategy.weightedRandom());
+
+        AudioTrack track = new DefaultAudioTrack(AudioTrack.encode(new DefaultAudioTrackInfo("Track", "Author", 212000,
+                "dQw4w9WgXcQ", false, "https://www.youtube.com/watch?v=dQw4w9WgXcQ", "youtube")));
+
+        System.out.println(rounds + " rounds of " + burst + " links over " + SYSTEM_LOADS.length + " nodes");
+        for (Map.Entry<String, NodeSelectionStrategy> entry : strategies.entrySet()) {
+            simulate(entry.getKey(), entry.getValue(), track, rounds, burst);
+        }
+    }
+
+    private static void simulate(String name, NodeSelectionStrategy strategy, AudioTrack track, int rounds,
+                                 int burst) throws Exception {
+        Lavalink<Link> lavalink = new Lavalink<Link>(1) {
+            @Override
+            protected Link buildNewLink(long guildId) {
+                return new SimulatedLink(this, guildId);
+            }
+        };
+        try {
+            lavalink.loadBalancer.setNodeSelectionStrategy(strategy);
+            for (int i = 0; i < SYSTEM_LOADS.length; i++) {
+                lavalink.nodes.add(new SimulatedNode("node-" + i, lavalink, i));
+            }
+            List<LavalinkSocket> nodes = lavalink.getNodes();
+            nodes.forEach(NodeSelectionSimulation::reportStats);
+
+            long guildId = 0;
+            int worstBurstShare = 0;
+            for (int round = 0; round < rounds; round++) {
+                int[] placed = new int[nodes.size()];
+                for (int i = 0; i < burst; i++, guildId++) {
+                    Link link = lavalink.getLink(guildId);
+                    placed[nodes.indexOf(link.getNode(true))]++;
+                    if (guildId % 4 != 0) link.getPlayer().playTrack(track);
+                }
+                for (int count : placed) {
+                    worstBurstShare = Math.max(worstBurstShare, count);
+                }
+                nodes.forEach(NodeSelectionSimulation::reportStats);
+            }
+
+            StringBuilder summary = new StringBuilder(String.format("%-18s", name));
+            int min = Integer.MAX_VALUE;
+            int max = 0;
+            for (LavalinkSocket node : nodes) {
+                int total = lavalink.loadBalancer.getPenalties(node, 0, Collections.emptyList()).getTotal();
+                min = Math.min(min, total);
+                max = Math.max(max, total);
+                summary.append(String.format(" %s=%d/%-5d", node.getName(), node.getPlayingPlayerCount(),
+                        node.getLinks().size()));
+            }
+            summary.append(String.format(" penalty spread=%-5d worst burst share=%d%%", max - min,
+                    100 * worstBurstShare / burst));
+            System.out.println(summary);
+        } finally {
+            lavalink.shutdown();
+        }
+    }
+
+    /**
+     * Makes the node report the links placed on it and its system load
+     */
+    private static void reportStats(LavalinkSocket node) {
+        double systemLoad = ((SimulatedNode) node).systemLoad;
+        node.setStats(new RemoteStats(new JSONObject()
+                .put("players", node.getLinks().size())
+                .put("playingPlayers", node.getPlayingPlayerCount())
+                .put("uptime", 0)
+                .put("memory", new JSONObject()
+                        .put("free", 0)
+                        .put("used", 0)
+                        .put("allocated", 0)
+                        .put("reservable", 0))
+                .put("cpu", new JSONObject()
+                        .put("cores", 4)
+                        .put("systemLoad", systemLoad)
+                        .put("lavalinkLoad", systemLoad))));
+    }
+
+    /**
+     * A node that is never connected, and only takes part in the selection
+     */
+    private static final class SimulatedNode extends LavalinkSocket {
+
+        private final double systemLoad;
+
+        SimulatedNode(String name, Lavalink<?> lavalink, int index) throws Exception {
+            super(name, null, lavalink, new URI("ws://localhost:" + (2333 + index)), new Draft_6455(),
+                    Collections.singletonMap("Authorization", ""), null);
+            this.systemLoad = SYSTEM_LOADS[index];
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public void send(String text, long guildId, MessagePriority priority) {
+        }
+    }
+
+    private static final class SimulatedLink extends Link {
+
+        SimulatedLink(Lavalink<?> lavalink, long guildId) {
+            super(lavalink, guildId);
+        }
+
+        @Override
+        protected void removeConnection() {
+        }
+
+        @Override
+        protected void queueAudioDisconnect() {
+        }
+
+        @Override
+        protected void queueAudioConnect(long channelId, ChannelType type) {
+        }
+    }
+}
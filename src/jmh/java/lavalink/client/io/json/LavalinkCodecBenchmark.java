@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.player.track.AudioTrack;
+import lavalink.client.player.track.AudioTrackEndReason;
+import lavalink.client.player.track.DefaultAudioTrackInfo;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the codecs on the messages that dominate the traffic of a busy client: the player updates and stats
+ * sent by the nodes, the load results returned by their REST API, and the play messages we send.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LavalinkCodecBenchmark {
+
+    private static final long GUILD_ID = 174820236481134592L;
+
+    @Param({"default", "orgjson"})
+    public String codecName;
+
+    private LavalinkCodec codec;
+    private String playerUpdate;
+    private String stats;
+    private String track;
+
+    @Setup
+    public void setup() throws IOException {
+        codec = "orgjson".equals(codecName) ? new OrgJsonCodec() : new DefaultLavalinkCodec();
+
+        playerUpdate = new JSONObject()
+                .put("op", "playerUpdate")
+                .put("guildId", Long.toString(GUILD_ID))
+                .put("state", new JSONObject()
+                        .put("time", 1500467109L)
+                        .put("position", 60000L)
+                        .put("connected", true))
+                .toString();
+
+        stats = new JSONObject()
+                .put("op", "stats")
+                .put("players", 1200)
+                .put("playingPlayers", 950)
+                .put("uptime", 123456789L)
+                .put("memory", new JSONObject()
+                        .put("free", 123456789L)
+                        .put("used", 123456789L)
+                        .put("allocated", 123456789L)
+                        .put("reservable", 123456789L))
+                .put("cpu", new JSONObject()
+                        .put("cores", 8)
+                        .put("systemLoad", 0.52)
+                        .put("lavalinkLoad", 0.27))
+                .put("frameStats", new JSONObject()
+                        .put("sent", 3000)
+                        .put("nulled", 12)
+                        .put("deficit", 4))
+                .toString();
+
+        track = AudioTrack.encode(newTrackInfo(0));
+    }
+
+    @Benchmark
+    public void decodePlayerUpdate(Blackhole blackhole) {
+        codec.decodeMessage(playerUpdate, new BlackholeHandler(blackhole));
+    }
+
+    @Benchmark
+    public void decodeStats(Blackhole blackhole) {
+        codec.decodeMessage(stats, new BlackholeHandler(blackhole));
+    }
+
+    @Benchmark
+    public Object decodeLoadResult(LoadResult loadResult) {
+        return codec.decodeLoadResult(loadResult.body);
+    }
+
+    @Benchmark
+    public String encodePlay() {
+        return codec.encodePlay(GUILD_ID, track, 60000, 0, false, 100);
+    }
+
+    private static DefaultAudioTrackInfo newTrackInfo(int i) {
+        return new DefaultAudioTrackInfo("Track " + i, "Author " + i, 212000 + i, "dQw4w9WgXc" + i, false,
+                "https://www.youtube.com/watch?v=dQw4w9WgXc" + i, "youtube");
+    }
+
+    @State(Scope.Benchmark)
+    public static class LoadResult {
+
+        /* A single track or a large playlist */
+        @Param({"1", "500"})
+        public int tracks;
+
+        private String body;
+
+        @Setup
+        public void setup() throws IOException {
+            JSONArray array = new JSONArray();
+            for (int i = 0; i < tracks; i++) {
+                DefaultAudioTrackInfo info = newTrackInfo(i);
+                array.put(new JSONObject()
+                        .put("track", AudioTrack.encode(info))
+                        .put("info", new JSONObject()
+                                .put("title", info.getTitle())
+                                .put("author", info.getAuthor())
+                                .put("length", info.getLength())
+                                .put("identifier", info.getIdentifier())
+                                .put("isStream", info.isStream())
+                                .put("isSeekable", true)
+                                .put("position", 0)
+                                .put("uri", info.getUri())
+                                .put("sourceName", info.getSourceName())));
+            }
+            body = new JSONObject()
+                    .put("loadType", tracks == 1 ? "TRACK_LOADED" : "PLAYLIST_LOADED")
+                    .put("playlistInfo", tracks == 1 ? new JSONObject() : new JSONObject()
+                            .put("name", "Playlist")
+                            .put("selectedTrack", -1))
+                    .put("tracks", array)
+                    .toString();
+        }
+    }
+
+    private static final class BlackholeHandler implements SocketMessageHandler {
+
+        private final Blackhole blackhole;
+
+        BlackholeHandler(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void onPlayerUpdate(long guildId, long time, long position, boolean connected) {
+            blackhole.consume(guildId);
+            blackhole.consume(time);
+            blackhole.consume(position);
+            blackhole.consume(connected);
+        }
+
+        @Override
+        public void onStats(@NonNull JSONObject stats) {
+            blackhole.consume(stats);
+        }
+
+        @Override
+        public void onTrackStart(long guildId, @NonNull String track) {
+            blackhole.consume(track);
+        }
+
+        @Override
+        public void onTrackEnd(long guildId, @NonNull String track, @NonNull AudioTrackEndReason reason) {
+            blackhole.consume(reason);
+        }
+
+        @Override
+        public void onTrackException(long guildId, @NonNull String track, @NonNull Exception exception) {
+            blackhole.consume(exception);
+        }
+
+        @Override
+        public void onTrackStuck(long guildId, @NonNull String track, long thresholdMs) {
+            blackhole.consume(thresholdMs);
+        }
+
+        @Override
+        public void onWebSocketClosed(long guildId, int code, @Nullable String reason, boolean byRemote) {
+            blackhole.consume(code);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.player.track;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a list of base64 encoded tracks with {@link AudioTrackDecoder}, one {@link AudioTrack#decode(String)}
+ * call per track, and the {@link MessageInput} based code that {@link AudioTrack#decode(String)} used before.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioTrackDecoderBenchmark {
+
+	/* A page of search results, and a playlist large enough to be split across threads */
+	@Param({"100", "5000"})
+	public int size;
+
+	private List<String> tracks;
+
+	@Setup
+	public void setup() throws IOException {
+		tracks = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			tracks.add(AudioTrack.encode(new DefaultAudioTrackInfo("Track " + i, "Author " + i % 50, 212000 + i,
+					"dQw4w9WgXc" + i, false, "https://www.youtube.com/watch?v=dQw4w9WgXc" + i, "youtube")));
+		}
+	}
+
+	@Benchmark
+	public List<AudioTrackInfo> decodeMessageInput() throws IOException {
+		List<AudioTrackInfo> infos = new ArrayList<>(tracks.size());
+		for (String track : tracks) {
+			infos.add(StreamTrackCodec.decode(Base64.getDecoder().decode(track)));
+		}
+		return infos;
+	}
+
+	@Benchmark
+	public List<AudioTrackInfo> decodeEach() throws IOException {
+		List<AudioTrackInfo> infos = new ArrayList<>(tracks.size());
+		for (String track : tracks) {
+			infos.add(AudioTrack.decode(track));
+		}
+		return infos;
+	}
+
+	@Benchmark
+	public List<AudioTrackInfo> decodeBatch() throws IOException {
+		return new AudioTrackDecoder().decode(tracks);
+	}
+
+	@Benchmark
+	public List<AudioTrackInfo> decodeAllParallel() throws IOException {
+		return AudioTrackDecoder.decodeAll(tracks, true);
+	}
+}
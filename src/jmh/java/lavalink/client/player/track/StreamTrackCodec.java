@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.player.track;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The stream based track format code that {@link TrackInfoCodec} replaced, kept as a baseline for the benchmarks.
+ */
+final class StreamTrackCodec {
+
+	private StreamTrackCodec() {
+	}
+
+	static AudioTrackInfo decode(byte[] bytes) throws IOException {
+		MessageInput stream = new MessageInput(new ByteArrayInputStream(bytes));
+		DataInput input = stream.nextMessage();
+		if (input == null) {
+			return null;
+		}
+
+		input.readByte();
+
+		AudioTrackInfo trackInfo = new DefaultAudioTrackInfo(
+				input.readUTF(),
+				input.readUTF(),
+				input.readLong(),
+				input.readUTF(),
+				input.readBoolean(),
+				AudioTrack.readNullableText(input),
+				input.readUTF()
+		);
+
+		stream.skipRemainingBytes();
+		return trackInfo;
+	}
+
+	static byte[] encode(AudioTrackInfo trackInfo) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		MessageOutput stream = new MessageOutput(baos);
+		DataOutput output = stream.startMessage();
+		output.write(AudioTrack.TRACK_INFO_VERSION);
+
+		output.writeUTF(trackInfo.getTitle());
+		output.writeUTF(trackInfo.getAuthor());
+		output.writeLong(trackInfo.getLength());
+		output.writeUTF(trackInfo.getIdentifier());
+		output.writeBoolean(trackInfo.isStream());
+		AudioTrack.writeNullableText(output, trackInfo.getUri());
+		output.writeUTF(trackInfo.getSourceName());
+
+		stream.commitMessage(AudioTrack.TRACK_INFO_VERSIONED);
+		return baos.toByteArray();
+	}
+}
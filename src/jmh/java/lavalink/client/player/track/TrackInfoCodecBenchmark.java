@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.player.track;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TrackInfoCodec} with the {@link MessageInput} and {@link MessageOutput} based code it replaced,
+ * on the raw track bytes so that base64 is left out.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackInfoCodecBenchmark {
+
+	/* Titles and authors in plain ASCII, which has a fast path, or with characters that take several bytes */
+	@Param({"ascii", "unicode"})
+	public String text;
+
+	private AudioTrackInfo info;
+	private byte[] bytes;
+
+	@Setup
+	public void setup() throws IOException {
+		String suffix = "unicode".equals(text) ? " éè トラック" : "";
+		info = new DefaultAudioTrackInfo("Never Gonna Give You Up" + suffix, "Rick Astley" + suffix, 212000,
+				"dQw4w9WgXcQ", false, "https://www.youtube.com/watch?v=dQw4w9WgXcQ", "youtube");
+		bytes = TrackInfoCodec.encode(info);
+	}
+
+	@Benchmark
+	public AudioTrackInfo decodeTrackInfoCodec() throws IOException {
+		return TrackInfoCodec.decode(bytes);
+	}
+
+	@Benchmark
+	public AudioTrackInfo decodeMessageInput() throws IOException {
+		return StreamTrackCodec.decode(bytes);
+	}
+
+	@Benchmark
+	public byte[] encodeTrackInfoCodec() throws IOException {
+		return TrackInfoCodec.encode(info);
+	}
+
+	@Benchmark
+	public byte[] encodeMessageOutput() throws IOException {
+		return StreamTrackCodec.encode(info);
+	}
+}
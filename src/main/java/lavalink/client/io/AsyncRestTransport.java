@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multiplexes requests over the I/O threads of a non-blocking client. Responses are handed to the executor
+ * as soon as they have arrived, so the I/O threads never run any of our code. Note that the client buffers the
+ * bytes of a response until it is complete, so the body is handled from memory.
+ * <p>
+ * The async client has no eviction thread of its own, so idle and expired connections are closed by the
+ * requests themselves, at most once per eviction interval.
+ */
+class AsyncRestTransport implements RestTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncRestTransport.class);
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final long idleEvictionMs;
+    private final AtomicLong lastEviction = new AtomicLong(System.currentTimeMillis());
+
+    AsyncRestTransport(CloseableHttpAsyncClient httpClient, PoolingNHttpClientConnectionManager connectionManager,
+                       long idleEvictionMs) {
+        this.httpClient = httpClient;
+        this.connectionManager = connectionManager;
+        this.idleEvictionMs = idleEvictionMs;
+        httpClient.start();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> get(String url, String auth, Executor executor, BodyHandler<T> bodyHandler) {
+        return execute(new HttpGet(url), auth, executor, bodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> post(String url, String auth, String json, Executor executor,
+                                         BodyHandler<T> bodyHandler) {
+        final HttpPost request = new HttpPost(url);
+        request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+        return execute(request, auth, executor, bodyHandler);
+    }
+
+    private <T> CompletableFuture<T> execute(HttpUriRequest request, String auth, Executor executor,
+                                             BodyHandler<T> bodyHandler) {
+        evictIfDue();
+        request.addHeader(HttpHeaders.AUTHORIZATION, auth);
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        httpClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse result) {
+                handOff(executor, () -> {
+                    try {
+                        future.complete(RestTransport.readBody(result, bodyHandler));
+                    } catch (IOException | RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                handOff(executor, () -> future.completeExceptionally(ex));
+            }
+
+            @Override
+            public void cancelled() {
+                handOff(executor, () -> future.completeExceptionally(new CancellationException("Request cancelled")));
+            }
+        });
+        return future;
+    }
+
+    private void evictIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastEviction.get();
+        if (now - last < idleEvictionMs || !lastEviction.compareAndSet(last, now)) return;
+
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleEvictionMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    private static void handOff(Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // The executor is shutting down, so there is nobody left to take the I/O thread from
+            task.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Failed to close async HTTP client", e);
+        }
+    }
+}
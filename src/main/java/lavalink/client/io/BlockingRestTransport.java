@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.HttpClientUtils;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs each request on a thread of the executor, which is blocked until the response has been read.
+ * The body is handled while it is being received.
+ */
+class BlockingRestTransport implements RestTransport {
+
+    private final HttpClient httpClient;
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    BlockingRestTransport(HttpClient httpClient, PoolingHttpClientConnectionManager connectionManager) {
+        this.httpClient = httpClient;
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> get(String url, String auth, Executor executor, BodyHandler<T> bodyHandler) {
+        return execute(new HttpGet(url), auth, executor, bodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> post(String url, String auth, String json, Executor executor,
+                                         BodyHandler<T> bodyHandler) {
+        final HttpPost request = new HttpPost(url);
+        request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+        return execute(request, auth, executor, bodyHandler);
+    }
+
+    private <T> CompletableFuture<T> execute(HttpUriRequest request, String auth, Executor executor,
+                                             BodyHandler<T> bodyHandler) {
+        request.addHeader(HttpHeaders.AUTHORIZATION, auth);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return RestTransport.readBody(httpClient.execute(request), bodyHandler);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public void close() {
+        HttpClientUtils.closeQuietly(httpClient);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import javax.annotation.CheckReturnValue;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Places each guild on a hash ring of the node names, so that a guild lands on the same node across restarts,
+ * and losing a node only moves the links that were on it. Each node appears on the ring as a number of virtual
+ * nodes to even out the share of the ring it owns.
+ * <p>
+ * The load of the nodes is bounded: a node with more than {@code loadFactor} times the average amount of links
+ * is skipped in favour of the next one on the ring. Penalties are not taken into account.
+ * <p>
+ * If a region resolver is set, guilds are placed on the nodes of their region, and on any node if none of
+ * those are available.
+ *
+ * @see NodeSelectionStrategy#consistentHash()
+ * @see Lavalink#addNode(String, java.net.URI, String, String)
+ */
+@SuppressWarnings("unused")
+public final class ConsistentHashStrategy implements NodeSelectionStrategy {
+
+    private static final int MAX_CACHED_RINGS = 64;
+
+    private volatile int virtualNodes = 100;
+    private volatile double loadFactor = 1.25;
+    @Nullable
+    private volatile LongFunction<String> regionResolver = null;
+    /* Rings by the node names they were built from */
+    private final Map<List<String>, Ring> rings = new ConcurrentHashMap<>();
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * @param virtualNodes the amount of points each node has on the ring
+     */
+    @CheckReturnValue
+    public ConsistentHashStrategy setVirtualNodes(int virtualNodes) {
+        if (virtualNodes < 1) throw new IllegalArgumentException("Virtual nodes must be at least 1");
+        this.virtualNodes = virtualNodes;
+        rings.clear();
+        return this;
+    }
+
+    public double getLoadFactor() {
+        return loadFactor;
+    }
+
+    /**
+     * @param loadFactor how many times the average amount of links a node may have before it is skipped
+     */
+    @CheckReturnValue
+    public ConsistentHashStrategy setLoadFactor(double loadFactor) {
+        if (!(loadFactor >= 1)) throw new IllegalArgumentException("Load factor must be at least 1");
+        this.loadFactor = loadFactor;
+        return this;
+    }
+
+    @Nullable
+    public LongFunction<String> getRegionResolver() {
+        return regionResolver;
+    }
+
+    /**
+     * @param regionResolver resolves the region of a guild id, or null if the guild has no preferred region
+     * @see LavalinkSocket#getRegion()
+     */
+    @CheckReturnValue
+    public ConsistentHashStrategy setRegionResolver(@Nullable LongFunction<String> regionResolver) {
+        this.regionResolver = regionResolver;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public LavalinkSocket select(long guildId, @NonNull List<LavalinkLoadBalancer.Penalties> candidates) {
+        List<LavalinkSocket> nodes = filterByRegion(guildId, candidates);
+        if (nodes.size() == 1) return nodes.get(0);
+
+        List<String> names = new ArrayList<>(nodes.size());
+        long totalLinks = 0;
+        for (LavalinkSocket node : nodes) {
+            names.add(node.getName());
+            totalLinks += node.getLinks().size();
+        }
+        long capacity = (long) Math.ceil(loadFactor * (totalLinks + 1) / nodes.size());
+
+        // A ring cached just before the virtual nodes were changed is rebuilt
+        int virtualNodes = this.virtualNodes;
+        Ring ring = rings.get(names);
+        if (ring == null || ring.virtualNodes != virtualNodes) {
+            if (rings.size() >= MAX_CACHED_RINGS) rings.clear();
+            ring = new Ring(names, virtualNodes);
+            rings.put(names, ring);
+        }
+
+        // Walk the ring from the guild until a node with room is found
+        int start = ring.indexOf(mix(guildId));
+        for (int i = 0; i < ring.hashes.length; i++) {
+            LavalinkSocket node = nodes.get(ring.owners[(start + i) % ring.hashes.length]);
+            if (node.getLinks().size() < capacity) return node;
+        }
+        return nodes.get(ring.owners[start]);
+    }
+
+    @Override
+    public String toString() {
+        return "ConsistentHashStrategy{" +
+                "virtualNodes=" + virtualNodes +
+                ", loadFactor=" + loadFactor +
+                ", regionResolver=" + (regionResolver != null) +
+                '}';
+    }
+
+    private List<LavalinkSocket> filterByRegion(long guildId, List<LavalinkLoadBalancer.Penalties> candidates) {
+        LongFunction<String> resolver = regionResolver;
+        String region = resolver == null ? null : resolver.apply(guildId);
+
+        List<LavalinkSocket> all = new ArrayList<>(candidates.size());
+        List<LavalinkSocket> inRegion = new ArrayList<>(candidates.size());
+        for (LavalinkLoadBalancer.Penalties penalties : candidates) {
+            LavalinkSocket node = penalties.getSocket();
+            all.add(node);
+            if (region != null && region.equals(node.getRegion())) inRegion.add(node);
+        }
+        return inRegion.isEmpty() ? all : inRegion;
+    }
+
+    /**
+     * Finalizer of MurmurHash3, which spreads similar inputs, such as snowflakes, across the ring.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * FNV-1a, which unlike {@link String#hashCode()} is 64 bits wide.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static final class Ring {
+
+        /* Sorted positions of the virtual nodes */
+        private final long[] hashes;
+        /* Index of the node owning each position */
+        private final int[] owners;
+        private final int virtualNodes;
+
+        private Ring(List<String> names, int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+            long[][] points = new long[names.size() * virtualNodes][];
+            for (int node = 0; node < names.size(); node++) {
+                for (int i = 0; i < virtualNodes; i++) {
+                    points[node * virtualNodes + i] = new long[]{hash(names.get(node) + "#" + i), node};
+                }
+            }
+            // Ties are broken by name, so that the ring does not depend on the order of the nodes
+            Arrays.sort(points, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                    : names.get((int) a[1]).compareTo(names.get((int) b[1])));
+
+            hashes = new long[points.length];
+            owners = new int[points.length];
+            for (int i = 0; i < points.length; i++) {
+                hashes[i] = points[i][0];
+                owners[i] = (int) points[i][1];
+            }
+        }
+
+        /**
+         * @return the index of the first position at or after the hash, wrapping around
+         */
+        private int indexOf(long hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) index = -index - 1;
+            return index == hashes.length ? 0 : index;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import javax.annotation.CheckReturnValue;
+import java.util.concurrent.Executor;
+
+/**
+ * Configures how player events are dispatched to listeners off the websocket thread.
+ *
+ * @see Lavalink#setEventDispatchConfig(EventDispatchConfig)
+ * @see EventDispatcher
+ */
+@SuppressWarnings("unused")
+public class EventDispatchConfig {
+
+    private int capacityPerGuild = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    @Nullable
+    private Executor executor = null;
+
+    public int getCapacityPerGuild() {
+        return capacityPerGuild;
+    }
+
+    /**
+     * @param capacityPerGuild the amount of events each guild may have waiting before the overflow policy applies
+     */
+    @CheckReturnValue
+    public EventDispatchConfig setCapacityPerGuild(int capacityPerGuild) {
+        if (capacityPerGuild < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+        this.capacityPerGuild = capacityPerGuild;
+        return this;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @CheckReturnValue
+    public EventDispatchConfig setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    @Nullable
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param executor the executor to run listeners on, or null to use the {@link ExecutionStrategy} of Lavalink.
+     *                 It is not shut down by Lavalink.
+     */
+    @CheckReturnValue
+    public EventDispatchConfig setExecutor(@Nullable Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "EventDispatchConfig{" +
+                "capacityPerGuild=" + capacityPerGuild +
+                ", overflowPolicy=" + overflowPolicy +
+                ", executor=" + executor +
+                '}';
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * The thread emitting the event waits until the guild has room again
+         */
+        BLOCK,
+
+        /**
+         * The new event is discarded
+         */
+        DROP_NEWEST,
+
+        /**
+         * The oldest event waiting for the guild is discarded
+         */
+        DROP_OLDEST
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.player.event.IPlayerEventListener;
+import lavalink.client.player.event.PlayerEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers player events to their listeners.
+ * <p>
+ * Without a configuration, listeners are invoked by the thread emitting the event, which usually is the websocket
+ * thread of the node. With a configuration, events are queued per guild and delivered by an executor, so a slow
+ * listener no longer holds up the messages of every other guild on the node. Events of the same guild are still
+ * delivered one at a time and in the order they were emitted.
+ *
+ * @see EventDispatchConfig
+ */
+@SuppressWarnings("unused")
+public class EventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EventDispatcher.class);
+    /* Events delivered before a guild hands its thread back to the executor */
+    private static final int MAX_DRAIN = 32;
+
+    @Nullable
+    private final EventDispatchConfig config;
+    @Nullable
+    private final Executor executor;
+    private final Map<Long, GuildQueue> queues = new ConcurrentHashMap<>();
+    private final Map<Class<?>, EventTypeStats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    EventDispatcher(@NonNull Lavalink<?> lavalink, @Nullable EventDispatchConfig config) {
+        this.config = config;
+        if (config == null) {
+            executor = null;
+        } else if (config.getExecutor() != null) {
+            executor = config.getExecutor();
+        } else {
+            executor = task -> lavalink.getExecutionStrategy().getExecutor().execute(task);
+        }
+    }
+
+    /**
+     * @param guildId   the guild the event belongs to, which determines its ordering
+     * @param event     the event
+     * @param listeners the listeners to notify
+     */
+    public void dispatch(long guildId, @NonNull PlayerEvent event, @NonNull List<IPlayerEventListener> listeners) {
+        EventTypeStats typeStats = stats.computeIfAbsent(event.getClass(),
+                type -> new EventTypeStats(type.getSimpleName()));
+
+        if (config == null) {
+            typeStats.dispatched.incrementAndGet();
+            listeners.forEach(listener -> listener.onEvent(event));
+            return;
+        }
+
+        Task task = new Task(event, listeners, typeStats);
+        while (true) {
+            GuildQueue queue = queues.computeIfAbsent(guildId, GuildQueue::new);
+            synchronized (queue) {
+                // The queue may have been removed after we looked it up
+                if (queue.retired) continue;
+                if (!enqueue(queue, task)) return;
+                if (!queue.scheduled) {
+                    queue.scheduled = true;
+                    schedule(queue);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if the task was dropped
+     */
+    private boolean enqueue(GuildQueue queue, Task task) {
+        if (queue.tasks.size() >= config.getCapacityPerGuild()) {
+            switch (config.getOverflowPolicy()) {
+                case BLOCK:
+                    // A listener emitting events of its own guild can't wait for itself
+                    if (queue.drainer == Thread.currentThread()) break;
+                    boolean interrupted = false;
+                    queue.waiters++;
+                    while (queue.tasks.size() >= config.getCapacityPerGuild()) {
+                        try {
+                            queue.wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                    queue.waiters--;
+                    if (interrupted) Thread.currentThread().interrupt();
+                    break;
+                case DROP_NEWEST:
+                    drop(queue.guildId, task);
+                    return false;
+                case DROP_OLDEST:
+                    Task oldest = queue.tasks.poll();
+                    depth.decrementAndGet();
+                    drop(queue.guildId, oldest);
+                    break;
+            }
+        }
+
+        queue.tasks.add(task);
+        depth.incrementAndGet();
+        return true;
+    }
+
+    private void drop(long guildId, Task task) {
+        task.typeStats.dropped.incrementAndGet();
+        log.warn("Event queue of guild {} is full, dropped {}", guildId, task.typeStats.type);
+    }
+
+    private void schedule(GuildQueue queue) {
+        try {
+            executor.execute(() -> drain(queue));
+        } catch (RuntimeException e) {
+            log.error("Failed to schedule events of guild {}", queue.guildId, e);
+            synchronized (queue) {
+                queue.scheduled = false;
+            }
+        }
+    }
+
+    private void drain(GuildQueue queue) {
+        for (int i = 0; i < MAX_DRAIN; i++) {
+            Task task;
+            synchronized (queue) {
+                task = queue.tasks.poll();
+                if (task == null) {
+                    queue.drainer = null;
+                    queue.scheduled = false;
+                    // Emitters waiting for room will add to this queue, so it has to stay
+                    if (queue.waiters == 0) {
+                        queue.retired = true;
+                        queues.remove(queue.guildId, queue);
+                    }
+                    return;
+                }
+                depth.decrementAndGet();
+                queue.drainer = Thread.currentThread();
+                queue.notifyAll();
+            }
+            task.run();
+        }
+
+        // Let other guilds have the thread, then pick up where we left off
+        synchronized (queue) {
+            queue.drainer = null;
+        }
+        schedule(queue);
+    }
+
+    /**
+     * @return whether events are delivered by an executor rather than by the emitting thread
+     */
+    public boolean isAsync() {
+        return config != null;
+    }
+
+    /**
+     * @return the amount of events waiting to be delivered, across all guilds
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+
+    @NonNull
+    public Map<Class<?>, EventTypeStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private static class GuildQueue {
+        private final long guildId;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private boolean scheduled = false;
+        private boolean retired = false;
+        private int waiters = 0;
+        @Nullable
+        private Thread drainer = null;
+
+        private GuildQueue(long guildId) {
+            this.guildId = guildId;
+        }
+    }
+
+    private static class Task {
+        private final PlayerEvent event;
+        private final List<IPlayerEventListener> listeners;
+        private final EventTypeStats typeStats;
+        private final long createdAt = System.nanoTime();
+
+        private Task(PlayerEvent event, List<IPlayerEventListener> listeners, EventTypeStats typeStats) {
+            this.event = event;
+            this.listeners = listeners;
+            this.typeStats = typeStats;
+        }
+
+        private void run() {
+            typeStats.dispatched.incrementAndGet();
+            typeStats.lagNanos.addAndGet(System.nanoTime() - createdAt);
+            for (IPlayerEventListener listener : listeners) {
+                try {
+                    listener.onEvent(event);
+                } catch (Exception e) {
+                    log.error("Listener {} threw an exception while handling {}", listener, typeStats.type, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counters for a single type of event.
+     */
+    public static class EventTypeStats {
+        private final String type;
+        private final AtomicLong dispatched = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong lagNanos = new AtomicLong();
+
+        private EventTypeStats(String type) {
+            this.type = type;
+        }
+
+        /**
+         * @return the simple name of the event class
+         */
+        public String getType() {
+            return type;
+        }
+
+        public long getDispatched() {
+            return dispatched.get();
+        }
+
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        /**
+         * @return the summed time events spent between being emitted and being delivered
+         */
+        public long getLagNanos() {
+            return lagNanos.get();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides which threads run the blocking and callback work of a {@link Lavalink} instance: track loading,
+ * load result callbacks, asynchronous event dispatch and reconnect attempts.
+ *
+ * @see Lavalink#setExecutionStrategy(ExecutionStrategy)
+ */
+@SuppressWarnings("unused")
+public final class ExecutionStrategy {
+
+    private final String name;
+    private final ExecutorService executor;
+    private final boolean owned;
+
+    private ExecutionStrategy(String name, ExecutorService executor, boolean owned) {
+        this.name = name;
+        this.executor = executor;
+        this.owned = owned;
+    }
+
+    /**
+     * Runs everything on {@link ForkJoinPool#commonPool()}. This is the default, and is shared with the rest of
+     * the application, so a spike of track loads may starve other users of the pool.
+     */
+    @NonNull
+    public static ExecutionStrategy commonPool() {
+        return new ExecutionStrategy("commonPool", ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * Runs everything on a dedicated pool of daemon threads. Work that can't be started right away is queued.
+     *
+     * @param threads the amount of threads in the pool
+     */
+    @NonNull
+    public static ExecutionStrategy boundedPool(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Threads must be at least 1");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "lavalink-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return new ExecutionStrategy("boundedPool(" + threads + ")", executor, true);
+    }
+
+    /**
+     * Runs every task on a new virtual thread. Blocking track loads then no longer hold on to a platform thread.
+     *
+     * @throws UnsupportedOperationException if the runtime does not support virtual threads, which requires Java 21
+     * @see #isVirtualThreadsSupported()
+     */
+    @NonNull
+    public static ExecutionStrategy virtualThreads() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            return new ExecutionStrategy("virtualThreads", executor, true);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer", e);
+        } catch (InvocationTargetException e) {
+            throw new UnsupportedOperationException("Failed to create a virtual thread executor", e.getCause());
+        }
+    }
+
+    /**
+     * @return whether {@link #virtualThreads()} can be used on this runtime
+     */
+    public static boolean isVirtualThreadsSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs everything on the given executor. It is not shut down by Lavalink.
+     */
+    @NonNull
+    public static ExecutionStrategy of(@NonNull ExecutorService executor) {
+        return new ExecutionStrategy("custom", executor, false);
+    }
+
+    @NonNull
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    void shutdown() {
+        if (owned) executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionStrategy{" + name + '}';
+    }
+}
@@ -24,6 +24,8 @@ package lavalink.client.io;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.json.DefaultLavalinkCodec;
+import lavalink.client.io.json.LavalinkCodec;
 import org.java_websocket.drafts.Draft_6455;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,7 +38,9 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -52,6 +56,22 @@ public abstract class Lavalink<T extends Link> {
     private final ConcurrentHashMap<Long, T> links = new ConcurrentHashMap<>();
     final List<LavalinkSocket> nodes = new CopyOnWriteArrayList<>();
     final LavalinkLoadBalancer loadBalancer = new LavalinkLoadBalancer(this);
+    @NonNull
+    private volatile LavalinkCodec codec = new DefaultLavalinkCodec();
+    @Nullable
+    private volatile OutboundQueueConfig outboundQueueConfig = null;
+    @NonNull
+    private volatile EventDispatcher eventDispatcher = new EventDispatcher(this, null);
+    @NonNull
+    private volatile HttpEngine httpEngine = HttpEngine.BLOCKING;
+    @NonNull
+    private volatile RestClientConfig restClientConfig = new RestClientConfig();
+    @Nullable
+    private volatile TrackLoadCache trackLoadCache = null;
+    @NonNull
+    private volatile ExecutionStrategy executionStrategy = ExecutionStrategy.commonPool();
+    @NonNull
+    private volatile ReconnectConfig reconnectConfig = new ReconnectConfig();
 
     private final ScheduledExecutorService reconnectService;
 
@@ -64,7 +84,6 @@ public abstract class Lavalink<T extends Link> {
             thread.setDaemon(true);
             return thread;
         });
-        reconnectService.scheduleWithFixedDelay(new ReconnectTask(this), 0, 500, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -77,6 +96,7 @@ public abstract class Lavalink<T extends Link> {
     }
 
     private static final AtomicInteger nodeCounter = new AtomicInteger(0);
+    private static final int DEFAULT_DRAIN_RATE = 50;
 
     public void addNode(@NonNull URI serverUri, @NonNull String password) {
         addNode("Lavalink_Node_#" + nodeCounter.getAndIncrement(), serverUri, password);
@@ -96,6 +116,25 @@ public abstract class Lavalink<T extends Link> {
      */
     @SuppressWarnings("WeakerAccess")
     public void addNode(@NonNull String name, @NonNull URI serverUri, @NonNull String password) {
+        addNode(name, serverUri, password, null);
+    }
+
+    /**
+     *
+     * @param name
+     *         A name to identify this node. May show up in metrics and other places.
+     * @param serverUri
+     *         uri of the node to be added
+     * @param password
+     *         password of the node to be added
+     * @param region
+     *         the region of the node, which guilds of that region prefer when placed by a {@link ConsistentHashStrategy}
+     * @throws IllegalStateException if no userId has been set.
+     * @throws IllegalArgumentException if a node with that name already exists.
+     * @see #setUserId(String)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public void addNode(@NonNull String name, @NonNull URI serverUri, @NonNull String password, @Nullable String region) {
         if (userId == null) {
             throw new IllegalStateException("We need a userId to connect to Lavalink");
         }
@@ -110,15 +149,60 @@ public abstract class Lavalink<T extends Link> {
         headers.put("User-Id", userId);
         headers.put("Client-Name", "Lavalink-Client");
 
-        LavalinkSocket socket = new LavalinkSocket(name, this, serverUri, new Draft_6455(), headers);
-        socket.connect();
+        LavalinkSocket socket = new LavalinkSocket(name, region, this, serverUri, new Draft_6455(), headers, outboundQueueConfig);
+        // Added first, as only nodes that are still added get reconnected if this attempt fails
         nodes.add(socket);
+        socket.connect();
     }
 
     @SuppressWarnings("unused")
     public void removeNode(int key) {
         LavalinkSocket node = nodes.remove(key);
-        node.close();
+        node.shutdown();
+    }
+
+    void removeNode(@NonNull LavalinkSocket node) {
+        if (nodes.remove(node)) node.shutdown();
+    }
+
+    /**
+     * Drains a node at 50 links per second.
+     *
+     * @see #drainNode(String, int)
+     */
+    @SuppressWarnings("unused")
+    @NonNull
+    public NodeDrain drainNode(@NonNull String name) {
+        return drainNode(name, DEFAULT_DRAIN_RATE);
+    }
+
+    /**
+     * Takes a node out of rotation, moves its links to other nodes at the given rate, and removes the node once
+     * it has none left. The players resume at their current position on their new node.
+     *
+     * @param name           the name of the node
+     * @param linksPerSecond the maximum amount of links to move per second
+     * @return the drain, which reports its progress. If the node is already being drained, its current drain
+     * @throws IllegalArgumentException if there is no node with that name
+     */
+    @SuppressWarnings("WeakerAccess")
+    @NonNull
+    public synchronized NodeDrain drainNode(@NonNull String name, int linksPerSecond) {
+        if (linksPerSecond < 1) throw new IllegalArgumentException("Links per second must be at least 1");
+        LavalinkSocket node = nodes.stream()
+                .filter(socket -> socket.getName().equals(name))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException("There is no node with the name " + name));
+
+        NodeDrain drain = node.getDrain();
+        if (drain != null) return drain;
+
+        NodeDrain created = new NodeDrain(this, node, linksPerSecond);
+        node.setDrain(created);
+        created.setTask(reconnectService.scheduleAtFixedRate(() -> created.schedule(executionStrategy.getExecutor()),
+                NodeDrain.INTERVAL_MS, NodeDrain.INTERVAL_MS, TimeUnit.MILLISECONDS));
+        log.info("Draining node " + name + " at " + linksPerSecond + " links per second");
+        return created;
     }
 
     @SuppressWarnings("unused")
@@ -177,9 +261,160 @@ public abstract class Lavalink<T extends Link> {
         this.userId = userId;
     }
 
+    @NonNull
+    public LavalinkCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Replaces the codec used to encode and decode messages exchanged with the nodes.
+     *
+     * @param codec the codec, which must be thread safe
+     */
+    @SuppressWarnings("unused")
+    public void setCodec(@NonNull LavalinkCodec codec) {
+        this.codec = codec;
+    }
+
+    @Nullable
+    public OutboundQueueConfig getOutboundQueueConfig() {
+        return outboundQueueConfig;
+    }
+
+    /**
+     * Enables batched writes for nodes added after this call. By default messages are written directly
+     * by the thread sending them.
+     *
+     * @param outboundQueueConfig the configuration of the queue, or null to write directly
+     * @see OutboundQueue
+     */
+    @SuppressWarnings("unused")
+    public void setOutboundQueueConfig(@Nullable OutboundQueueConfig outboundQueueConfig) {
+        this.outboundQueueConfig = outboundQueueConfig;
+    }
+
+    @NonNull
+    public HttpEngine getHttpEngine() {
+        return httpEngine;
+    }
+
+    /**
+     * Sets the HTTP client used by the REST clients of nodes added after this call. Defaults to
+     * {@link HttpEngine#BLOCKING}.
+     *
+     * @param httpEngine the engine to use
+     */
+    @SuppressWarnings("unused")
+    public void setHttpEngine(@NonNull HttpEngine httpEngine) {
+        this.httpEngine = httpEngine;
+    }
+
+    @NonNull
+    public RestClientConfig getRestClientConfig() {
+        return restClientConfig;
+    }
+
+    /**
+     * Sets the connection pool settings of the REST clients of nodes added after this call.
+     *
+     * @param restClientConfig the configuration of the pools
+     * @see LavalinkRestClient#setConfig(RestClientConfig)
+     */
+    @SuppressWarnings("unused")
+    public void setRestClientConfig(@NonNull RestClientConfig restClientConfig) {
+        this.restClientConfig = restClientConfig;
+    }
+
+    @NonNull
+    public ReconnectConfig getReconnectConfig() {
+        return reconnectConfig;
+    }
+
+    /**
+     * Sets the backoff of reconnect attempts, which takes effect from the next attempt of each node.
+     *
+     * @param reconnectConfig the backoff settings
+     */
+    @SuppressWarnings("unused")
+    public void setReconnectConfig(@NonNull ReconnectConfig reconnectConfig) {
+        this.reconnectConfig = reconnectConfig;
+    }
+
+    /**
+     * Runs a task on the executor of the execution strategy after a delay.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if this instance has been shut down
+     */
+    ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        return reconnectService.schedule(() -> {
+            try {
+                executionStrategy.getExecutor().execute(task);
+            } catch (RejectedExecutionException e) {
+                log.debug("Dropped a scheduled task as the executor is shutting down", e);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Nullable
+    public TrackLoadCache getTrackLoadCache() {
+        return trackLoadCache;
+    }
+
+    /**
+     * Enables caching of track load results, which is shared by all nodes. Replacing the configuration starts
+     * with an empty cache.
+     *
+     * @param trackLoadCacheConfig the configuration of the cache, or null to disable caching
+     * @see TrackLoadCache
+     */
+    @SuppressWarnings("unused")
+    public void setTrackLoadCacheConfig(@Nullable TrackLoadCacheConfig trackLoadCacheConfig) {
+        this.trackLoadCache = trackLoadCacheConfig == null ? null : new TrackLoadCache(trackLoadCacheConfig);
+    }
+
+    @NonNull
+    public EventDispatcher getEventDispatcher() {
+        return eventDispatcher;
+    }
+
+    /**
+     * Moves the delivery of player events off the websocket threads. By default listeners are invoked by the
+     * thread that received the event.
+     *
+     * @param eventDispatchConfig the configuration of the dispatcher, or null to deliver events synchronously
+     * @see EventDispatcher
+     */
+    @SuppressWarnings("unused")
+    public void setEventDispatchConfig(@Nullable EventDispatchConfig eventDispatchConfig) {
+        eventDispatcher = new EventDispatcher(this, eventDispatchConfig);
+    }
+
+    @NonNull
+    public ExecutionStrategy getExecutionStrategy() {
+        return executionStrategy;
+    }
+
+    /**
+     * Sets the threads that load tracks, run load result callbacks, dispatch events and reconnect nodes.
+     * Defaults to {@link ExecutionStrategy#commonPool()}.
+     *
+     * @param executionStrategy the strategy to use
+     * @throws IllegalStateException if nodes have already been added
+     */
+    @SuppressWarnings("unused")
+    public void setExecutionStrategy(@NonNull ExecutionStrategy executionStrategy) {
+        if (!nodes.isEmpty()) {
+            throw new IllegalStateException("Can't set the execution strategy if we already have nodes registered!");
+        }
+        ExecutionStrategy previous = this.executionStrategy;
+        this.executionStrategy = executionStrategy;
+        previous.shutdown();
+    }
+
     public void shutdown() {
         reconnectService.shutdown();
-        nodes.forEach(ReusableWebSocket::close);
+        executionStrategy.shutdown();
+        nodes.forEach(LavalinkSocket::shutdown);
     }
 
     void removeDestroyedLink(Link link) {
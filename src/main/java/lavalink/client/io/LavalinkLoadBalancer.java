@@ -35,6 +35,7 @@ public class LavalinkLoadBalancer {
     private final Lavalink<? extends Link> lavalink;
     //private Map<String, Optional<LavalinkSocket>> socketMap = new ConcurrentHashMap<>();
     private final List<PenaltyProvider> penaltyProviders = new ArrayList<>();
+    private volatile NodeSelectionStrategy nodeSelectionStrategy = NodeSelectionStrategy.minPenalty();
 
     LavalinkLoadBalancer(Lavalink<? extends Link> lavalink) {
         this.lavalink = lavalink;
@@ -42,22 +43,40 @@ public class LavalinkLoadBalancer {
 
     @NonNull
     public LavalinkSocket determineBestSocket(long guild) {
-        LavalinkSocket leastPenalty = null;
-        int record = Integer.MAX_VALUE;
+        return select(guild, getCandidates(guild));
+    }
+
+    /**
+     * Sets the strategy that selects the node of a link out of the available ones.
+     * Defaults to {@link NodeSelectionStrategy#minPenalty()}.
+     */
+    @SuppressWarnings("unused")
+    public void setNodeSelectionStrategy(@NonNull NodeSelectionStrategy nodeSelectionStrategy) {
+        this.nodeSelectionStrategy = nodeSelectionStrategy;
+    }
 
+    @SuppressWarnings("unused")
+    @NonNull
+    public NodeSelectionStrategy getNodeSelectionStrategy() {
+        return nodeSelectionStrategy;
+    }
+
+    /**
+     * @return the penalties of the available nodes for the guild, leaving out those being drained
+     */
+    private List<Penalties> getCandidates(long guild) {
         List<LavalinkSocket> nodes = lavalink.getNodes();
+        List<Penalties> candidates = new ArrayList<>(nodes.size());
         for (LavalinkSocket socket : nodes) {
-            int total = getPenalties(socket, guild, penaltyProviders).getTotal();
-            if (total < record) {
-                leastPenalty = socket;
-                record = total;
-            }
+            if (socket.isAvailable() && !socket.isDraining()) candidates.add(getPenalties(socket, guild, penaltyProviders));
         }
+        return candidates;
+    }
 
-        if (leastPenalty == null || !leastPenalty.isAvailable())
-            throw new IllegalStateException("No available nodes!");
+    private LavalinkSocket select(long guild, List<Penalties> candidates) {
+        if (candidates.isEmpty()) throw new IllegalStateException("No available nodes!");
 
-        return leastPenalty;
+        return nodeSelectionStrategy.select(guild, candidates);
     }
 
     @SuppressWarnings("unused")
@@ -71,18 +90,35 @@ public class LavalinkLoadBalancer {
     }
 
     void onNodeDisconnect(LavalinkSocket disconnected) {
-        Collection<? extends Link> links = lavalink.getLinks();
-        links.forEach(link -> {
-            if (disconnected.equals(link.getNode(false)))
-                link.changeNode(lavalink.loadBalancer.determineBestSocket(link.getGuildId()));
-        });
+        List<Link> affected = new ArrayList<>(disconnected.getLinks());
+        if (affected.isEmpty()) return;
+
+        // Without custom penalties all links see the same nodes, so the penalties are computed once and only
+        // the counts of the selected node are refreshed after each move. Custom penalties may depend on the guild.
+        List<Penalties> candidates = null;
+        for (Link link : affected) {
+            if (candidates == null || !penaltyProviders.isEmpty()) candidates = getCandidates(link.getGuildId());
+
+            if (candidates.isEmpty()) {
+                // Detach the link so that the next node to connect picks it up
+                link.moveFrom(disconnected, null, false);
+                continue;
+            }
+            LavalinkSocket selected = select(link.getGuildId(), candidates);
+            if (!link.moveFrom(disconnected, selected, false)) continue;
+            for (Penalties penalties : candidates) {
+                if (penalties.getSocket() == selected) penalties.refreshCounts();
+            }
+        }
     }
 
     void onNodeConnect(LavalinkSocket connected) {
+        if (connected.isDraining()) return; // Links placed on it would only have to move again
         List<LavalinkSocket> sockets = lavalink.getNodes();
         long otherAvailableNodes = sockets.stream()
                 .filter(node -> node != connected)
                 .filter(LavalinkSocket::isAvailable)
+                .filter(node -> !node.isDraining())
                 .count();
         if (otherAvailableNodes > 0) { //only update links if this is the only connected node
             return;
@@ -109,6 +145,7 @@ public class LavalinkLoadBalancer {
         private final LavalinkSocket socket;
         private final long guild;
         private int playerPenalty = 0;
+        private int assignmentPenalty = 0;
         private int cpuPenalty = 0;
         private int deficitFramePenalty = 0;
         private int nullFramePenalty = 0;
@@ -119,38 +156,30 @@ public class LavalinkLoadBalancer {
             this.lavalink = lavalink;
             this.socket = socket;
             this.guild = guild;
-            RemoteStats stats = socket.getStats();
-            if (stats == null) return; // Will return as max penalty anyways
+            StatPenalties statPenalties = socket.getStatPenalties();
+            if (statPenalties == null) return; // Will return as max penalty anyways
             // This will serve as a rule of thumb. 1 playing player = 1 penalty point
-            if (lavalink != null) {
-                playerPenalty = countPlayingPlayers();
-            } else {
-                playerPenalty = stats.getPlayingPlayers();
-            }
+            if (lavalink == null) playerPenalty = statPenalties.playingPlayers;
+            refreshCounts();
 
-            // https://fred.moe/293.png
-            cpuPenalty = (int) Math.pow(1.05d, 100 * stats.getSystemLoad()) * 10 - 10;
-
-            // -1 Means we don't have any frame stats. This is normal for very young nodes
-            if (stats.getAvgFramesDeficitPerMinute() != -1) {
-                // https://fred.moe/rjD.png
-                deficitFramePenalty = (int) (Math.pow(1.03d, 500f * ((float) stats.getAvgFramesDeficitPerMinute() / 3000f)) * 600 - 600);
-                nullFramePenalty = (int) (Math.pow(1.03d, 500f * ((float) stats.getAvgFramesNulledPerMinute() / 3000f)) * 300 - 300);
-                nullFramePenalty *= 2;
-                // Deficit frames are better than null frames, as deficit frames can be caused by the garbage collector
-            }
+            cpuPenalty = statPenalties.cpuPenalty;
+            deficitFramePenalty = statPenalties.deficitFramePenalty;
+            nullFramePenalty = statPenalties.nullFramePenalty;
             penaltyProviders.forEach(pp -> customPenalties += pp.getPenalty(this));
         }
 
-        private int countPlayingPlayers() {
-            Collection<? extends Link> links = lavalink.getLinks();
-            long players = links
-                    .stream().filter(link ->
-                            socket.equals(link.getNode(false)) &&
-                                    link.getPlayer().getPlayingTrack() != null &&
-                                    !link.getPlayer().isPaused())
-                    .count();
-            return (int) players;
+        /**
+         * Rereads the penalties that change with the links assigned to the node.
+         */
+        void refreshCounts() {
+            if (socket.getStatPenalties() == null) return;
+            if (lavalink != null) {
+                // Counted live, so it already includes the links that started playing since the last stats message
+                playerPenalty = socket.getPlayingPlayerCount();
+            } else {
+                // The players from the last stats message don't include the links assigned since
+                assignmentPenalty = socket.getLinksAssignedSinceStats();
+            }
         }
 
         public LavalinkSocket getSocket() {
@@ -165,6 +194,14 @@ public class LavalinkLoadBalancer {
             return playerPenalty;
         }
 
+        /**
+         * @return the links assigned to the node since its last stats message, when the player penalty comes from
+         * that message. Always 0 when the player penalty is counted live.
+         */
+        public int getAssignmentPenalty() {
+            return assignmentPenalty;
+        }
+
         public int getCpuPenalty() {
             return cpuPenalty;
         }
@@ -183,7 +220,7 @@ public class LavalinkLoadBalancer {
 
         public int getTotal() {
             if (!socket.isAvailable() || socket.getStats() == null) return (Integer.MAX_VALUE - 1);
-            return playerPenalty + cpuPenalty + deficitFramePenalty + nullFramePenalty + customPenalties;
+            return playerPenalty + assignmentPenalty + cpuPenalty + deficitFramePenalty + nullFramePenalty + customPenalties;
         }
 
         @Override
@@ -195,6 +232,7 @@ public class LavalinkLoadBalancer {
             return "Penalties{" +
                     "total=" + getTotal() +
                     ", playerPenalty=" + playerPenalty +
+                    ", assignmentPenalty=" + assignmentPenalty +
                     ", cpuPenalty=" + cpuPenalty +
                     ", deficitFramePenalty=" + deficitFramePenalty +
                     ", nullFramePenalty=" + nullFramePenalty +
@@ -203,4 +241,34 @@ public class LavalinkLoadBalancer {
         }
     }
 
+    /**
+     * The penalties derived from a stats message of a node, which are computed once per message rather than
+     * once per node selection.
+     */
+    static final class StatPenalties {
+
+        private final int playingPlayers;
+        private final int cpuPenalty;
+        private final int deficitFramePenalty;
+        private final int nullFramePenalty;
+
+        StatPenalties(RemoteStats stats) {
+            playingPlayers = stats.getPlayingPlayers();
+
+            // https://fred.moe/293.png
+            cpuPenalty = (int) Math.pow(1.05d, 100 * stats.getSystemLoad()) * 10 - 10;
+
+            // -1 Means we don't have any frame stats. This is normal for very young nodes
+            if (stats.getAvgFramesDeficitPerMinute() != -1) {
+                // https://fred.moe/rjD.png
+                deficitFramePenalty = (int) (Math.pow(1.03d, 500f * ((float) stats.getAvgFramesDeficitPerMinute() / 3000f)) * 600 - 600);
+                // Deficit frames are better than null frames, as deficit frames can be caused by the garbage collector
+                nullFramePenalty = 2 * (int) (Math.pow(1.03d, 500f * ((float) stats.getAvgFramesNulledPerMinute() / 3000f)) * 300 - 300);
+            } else {
+                deficitFramePenalty = 0;
+                nullFramePenalty = 0;
+            }
+        }
+    }
+
 }
@@ -24,27 +24,39 @@
 package lavalink.client.io;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import lavalink.client.io.json.LavalinkCodec;
 import lavalink.client.player.track.*;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpHeaders;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.util.EntityUtils;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
 
 @SuppressWarnings("unused")
 public final class LavalinkRestClient {
@@ -53,18 +65,79 @@ public final class LavalinkRestClient {
 
 	private static final String YOUTUBE_SEARCH_PREFIX = "ytsearch:";
 	private static final String SOUNDCLOUD_SEARCH_PREFIX = "scsearch:";
+	private static final int DEFAULT_DECODE_CHUNK_SIZE = 100;
+	private static final int DEFAULT_DECODE_CONCURRENCY = 4;
 
 	private final LavalinkSocket socket;
+	private final HttpEngine engine;
+	private RestClientConfig config;
 	private Consumer<HttpClientBuilder> builderConsumer;
+	private Consumer<HttpAsyncClientBuilder> asyncBuilderConsumer;
 
-	private final HttpClient httpClient = buildClient();
+	private volatile RestTransport transport;
+	/* Loads waiting for a response, by normalized identifier */
+	private final ConcurrentHashMap<String, CompletableFuture<TrackLoadResult>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong coalescedLoads = new AtomicLong();
 
 	LavalinkRestClient(final LavalinkSocket socket) {
 		this.socket = socket;
+		this.engine = socket.getLavalink().getHttpEngine();
+		this.config = socket.getLavalink().getRestClientConfig();
+		this.transport = buildTransport();
 	}
 
+	/**
+	 * Customizes the blocking HTTP client and rebuilds it. The builder has already been configured from the
+	 * {@link RestClientConfig}, so anything set here takes precedence. Requests in flight on the previous client fail.
+	 */
 	public void setHttpClientBuilder(final Consumer<HttpClientBuilder> clientBuilder) {
 		this.builderConsumer = clientBuilder;
+		rebuild();
+	}
+
+	/**
+	 * Customizes the non-blocking HTTP client, which is used with {@link HttpEngine#ASYNC}, and rebuilds it.
+	 * The builder has already been configured from the {@link RestClientConfig}, so anything set here takes precedence.
+	 * Requests in flight on the previous client fail.
+	 */
+	public void setHttpAsyncClientBuilder(final Consumer<HttpAsyncClientBuilder> clientBuilder) {
+		this.asyncBuilderConsumer = clientBuilder;
+		rebuild();
+	}
+
+	/**
+	 * Replaces the connection pool settings of this node and rebuilds the HTTP client.
+	 * Requests in flight on the previous client fail.
+	 */
+	public void setConfig(@NonNull final RestClientConfig config) {
+		this.config = config;
+		rebuild();
+	}
+
+	@NonNull
+	public RestClientConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * @return the amount of leased, pending, available and maximum connections of the pool
+	 */
+	@NonNull
+	public PoolStats getPoolStats() {
+		return transport.getPoolStats();
+	}
+
+	/**
+	 * @return the amount of loads that were answered by a request already in flight for the same identifier
+	 */
+	public long getCoalescedLoads() {
+		return coalescedLoads.get();
+	}
+
+	private synchronized void rebuild() {
+		final RestTransport previous = transport;
+		transport = buildTransport();
+		previous.close();
 	}
 
 	/**
@@ -78,7 +151,7 @@ public final class LavalinkRestClient {
 	@NonNull
 	public CompletableFuture<List<AudioTrack>> getYoutubeSearchResult(final String query) {
 		return load(YOUTUBE_SEARCH_PREFIX + query)
-				.thenApplyAsync(LavalinkRestClient::transformSearchResult);
+				.thenApplyAsync(LavalinkRestClient::transformSearchResult, getExecutor());
 	}
 
 	/**
@@ -92,7 +165,7 @@ public final class LavalinkRestClient {
 	@NonNull
 	public CompletableFuture<List<AudioTrack>> getSoundcloudSearchResult(final String query) {
 		return load(SOUNDCLOUD_SEARCH_PREFIX + query)
-				.thenApplyAsync(LavalinkRestClient::transformSearchResult);
+				.thenApplyAsync(LavalinkRestClient::transformSearchResult, getExecutor());
 	}
 
 	/**
@@ -105,138 +178,452 @@ public final class LavalinkRestClient {
 	@NonNull
 	public CompletableFuture<Void> loadItem(final String identifier, final LoadResultHandler callback) {
 		return load(identifier)
-				.thenAcceptAsync(loadResult -> consumeCallback(loadResult, callback));
+				.thenAcceptAsync(loadResult -> consumeCallback(loadResult, callback), getExecutor());
 	}
 
-	private void consumeCallback(final JSONObject loadResult, final LoadResultHandler callback) {
+	/**
+	 * Loads an item from Lavalink's Track Loading API and hands its tracks to the provided
+	 * {@code StreamingLoadResultHandler callback} in chunks while the response is still being received,
+	 * so that playback of a large playlist can start before all of it has been decoded.
+	 * <p>
+	 * Streaming loads are neither cached nor shared with identical loads. Chunks are delivered on the thread
+	 * decoding the response, and stay delivered if the load fails afterwards.
+	 *
+	 * @param identifier the identifier for the track
+	 * @param chunkSize  the amount of tracks in each chunk but the last
+	 * @param callback   the result handler that will handle the tracks and the outcome of the load
+	 */
+	@NonNull
+	public CompletableFuture<Void> loadItemStreaming(final String identifier, final int chunkSize,
+	                                                 final StreamingLoadResultHandler callback) {
+		if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+
+		final CompletableFuture<TrackLoadResult> response;
+		try {
+			final String requestURL = buildBaseAddress() + "/loadtracks?identifier=" + URLEncoder.encode(identifier, "UTF-8");
+			response = transport.get(requestURL, socket.getPassword(), getExecutor(),
+					body -> decodeLoadResult(body, chunkSize, callback));
+		} catch (final Throwable exception) {
+			log.error("Failed to load track with identifier " + identifier, exception);
+			return CompletableFuture.runAsync(callback::noMatches, getExecutor());
+		}
+
+		return response.handleAsync((loadResult, throwable) -> {
+			if (throwable != null) {
+				log.error("Failed to load track with identifier " + identifier, unwrap(throwable));
+				callback.noMatches();
+				return null;
+			}
+
+			switch (loadResult.getType()) {
+				case TRACK_LOADED:
+				case PLAYLIST_LOADED:
+				case SEARCH_RESULT:
+					callback.loadCompleted(loadResult.getType(), loadResult.getPlaylistName(), loadResult.getSelectedTrack());
+					break;
+				case NO_MATCHES:
+					callback.noMatches();
+					break;
+				case LOAD_FAILED:
+					callback.loadFailed(loadResult.getException());
+					break;
+				default:
+					throw new IllegalArgumentException("Invalid loadType: " + loadResult.getType());
+			}
+			return null;
+		}, getExecutor());
+	}
+
+	/**
+	 * Loads many items from Lavalink's Track Loading API, with at most {@code maxConcurrency} requests
+	 * in flight at a time. Each item goes through the load cache and shares the request of an identical
+	 * load, like {@link #loadItem(String, LoadResultHandler)}.
+	 *
+	 * @param identifiers    the identifiers of the items to load
+	 * @param maxConcurrency the maximum amount of loads to run at the same time
+	 * @return the results of the loads, in the order of the identifiers. Loads that failed to reach
+	 * the node result in {@code NO_MATCHES}
+	 */
+	@NonNull
+	public CompletableFuture<List<TrackLoadResult>> loadItems(final List<String> identifiers, final int maxConcurrency) {
+		if (maxConcurrency < 1) throw new IllegalArgumentException("Concurrency must be at least 1");
+
+		return new BoundedBatch<>(identifiers.size(), maxConcurrency, i -> load(identifiers.get(i))
+				.thenApply(loadResult -> loadResult != null ? loadResult
+						: new TrackLoadResult(TrackLoadResult.Type.NO_MATCHES, Collections.emptyList(), null, -1, null)))
+				.start();
+	}
+
+	/**
+	 * Decodes encoded tracks with Lavalink's Track Decoding API, in requests of 100 tracks, at most 4 at a time.
+	 *
+	 * @param tracks the encoded tracks
+	 * @return the decoded tracks, in the order of the encoded ones
+	 * @see #decodeTracks(List, int, int)
+	 */
+	@NonNull
+	public CompletableFuture<List<AudioTrack>> decodeTracks(final List<String> tracks) {
+		return decodeTracks(tracks, DEFAULT_DECODE_CHUNK_SIZE, DEFAULT_DECODE_CONCURRENCY);
+	}
+
+	/**
+	 * Decodes encoded tracks with Lavalink's Track Decoding API. The tracks are split in chunks that are
+	 * sent as separate requests, with at most {@code maxConcurrency} of them in flight at a time.
+	 *
+	 * @param tracks         the encoded tracks
+	 * @param chunkSize      the maximum amount of tracks to decode per request
+	 * @param maxConcurrency the maximum amount of requests to run at the same time
+	 * @return the decoded tracks, in the order of the encoded ones. The future fails if any of the requests fails
+	 */
+	@NonNull
+	public CompletableFuture<List<AudioTrack>> decodeTracks(final List<String> tracks, final int chunkSize,
+	                                                        final int maxConcurrency) {
+		if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+		if (maxConcurrency < 1) throw new IllegalArgumentException("Concurrency must be at least 1");
+
+		final int chunks = (tracks.size() + chunkSize - 1) / chunkSize;
+		return new BoundedBatch<>(chunks, maxConcurrency, i -> decodeChunk(
+				tracks.subList(i * chunkSize, Math.min(tracks.size(), (i + 1) * chunkSize))))
+				.start()
+				.thenApply(decoded -> {
+					final List<AudioTrack> result = new ArrayList<>(tracks.size());
+					decoded.forEach(result::addAll);
+					return result;
+				});
+	}
+
+	private CompletableFuture<List<AudioTrack>> decodeChunk(final List<String> tracks) {
+		final LavalinkCodec codec = socket.getLavalink().getCodec();
+		final CompletableFuture<List<AudioTrack>> response;
+		try {
+			response = transport.post(buildBaseAddress() + "/decodetracks", socket.getPassword(),
+					codec.encodeTrackList(tracks), getExecutor(), body -> {
+						try {
+							return codec.decodeTrackList(body);
+						} catch (final UncheckedIOException exception) {
+							throw exception.getCause();
+						}
+					});
+		} catch (final Throwable exception) {
+			final CompletableFuture<List<AudioTrack>> failed = new CompletableFuture<>();
+			failed.completeExceptionally(exception);
+			return failed;
+		}
+
+		return response.thenApply(decoded -> {
+			if (decoded.size() != tracks.size()) {
+				throw new IllegalStateException("Expected " + tracks.size() + " decoded tracks, got " + decoded.size());
+			}
+			return decoded;
+		});
+	}
+
+	private void consumeCallback(final TrackLoadResult loadResult, final LoadResultHandler callback) {
 		if (loadResult == null) {
 			callback.noMatches();
 			return;
 		}
 
 		try {
-			final String loadType = loadResult.getString("loadType");
 			final TrackLoadResultHandler trackLoadResultHandler = new TrackLoadResultHandler(loadResult);
 
-			switch (loadType) {
-				case "TRACK_LOADED":
+			switch (loadResult.getType()) {
+				case TRACK_LOADED:
 					callback.trackLoaded(trackLoadResultHandler.handleTrackLoaded());
 					break;
-				case "PLAYLIST_LOADED":
+				case PLAYLIST_LOADED:
 					callback.playlistLoaded(trackLoadResultHandler.handlePlaylistLoaded());
 					break;
-				case "NO_MATCHES":
+				case NO_MATCHES:
 					callback.noMatches();
 					break;
-				case "LOAD_FAILED":
+				case LOAD_FAILED:
 					callback.loadFailed(trackLoadResultHandler.handleLoadFailed());
 					break;
-				case "SEARCH_RESULT":
+				case SEARCH_RESULT:
 					callback.searchResultLoaded(trackLoadResultHandler.handleSearchResultLoaded());
 					break;
 				default:
-					throw new IllegalArgumentException("Invalid loadType: " + loadType);
+					throw new IllegalArgumentException("Invalid loadType: " + loadResult.getType());
 			}
 		} catch (final Exception exception) {
 			callback.loadFailed(new FriendlyException(exception.getMessage(), FriendlyException.Severity.FAULT, exception));
 		}
 	}
 
-	private CompletableFuture<JSONObject> load(final String identifier) {
-		return CompletableFuture.supplyAsync(() -> {
-			try {
-				final String requestURL = buildBaseAddress() + URLEncoder.encode(identifier, "UTF-8");
-				return apiGet(requestURL, socket.getPassword());
-			} catch (final Throwable exception) {
-				log.error("Failed to load track with identifier " + identifier, exception);
+	private CompletableFuture<TrackLoadResult> load(final String identifier) {
+		final TrackLoadCache cache = socket.getLavalink().getTrackLoadCache();
+		if (cache != null) {
+			final TrackLoadResult cached = cache.get(identifier);
+			if (cached != null) return CompletableFuture.completedFuture(cached);
+		}
+
+		// Identical loads share the request of the first one, but each gets its own tracks
+		final String key = TrackLoadCache.normalize(identifier);
+		final CompletableFuture<TrackLoadResult> created = new CompletableFuture<>();
+		final CompletableFuture<TrackLoadResult> existing = inFlight.putIfAbsent(key, created);
+		if (existing != null) {
+			coalescedLoads.incrementAndGet();
+			return existing.thenApply(loadResult -> loadResult == null ? null : loadResult.copy());
+		}
+
+		fetch(identifier, cache).whenComplete((loadResult, throwable) -> {
+			inFlight.remove(key, created);
+			if (throwable != null) created.completeExceptionally(throwable);
+			else created.complete(loadResult);
+		});
+		return created;
+	}
+
+	private CompletableFuture<TrackLoadResult> fetch(final String identifier, final TrackLoadCache cache) {
+		final CompletableFuture<TrackLoadResult> response;
+		try {
+			final String requestURL = buildBaseAddress() + "/loadtracks?identifier=" + URLEncoder.encode(identifier, "UTF-8");
+			response = transport.get(requestURL, socket.getPassword(), getExecutor(), this::decodeLoadResult);
+		} catch (final Throwable exception) {
+			log.error("Failed to load track with identifier " + identifier, exception);
+			return CompletableFuture.completedFuture(null);
+		}
+
+		return response.handle((loadResult, throwable) -> {
+			if (throwable != null) {
+				final Throwable cause = unwrap(throwable);
+				if (cause instanceof UndecodableResponseException) {
+					// Only this response is at fault, so the failure is not cached for other loads
+					log.warn("Failed to decode load result of identifier " + identifier, cause.getCause());
+					return ((UndecodableResponseException) cause).loadResult;
+				}
+				log.error("Failed to load track with identifier " + identifier, cause);
+				return null;
 			}
 
-			return null;
+			if (cache != null) cache.put(identifier, loadResult);
+			return loadResult;
 		});
 	}
 
-	private static List<AudioTrack> transformSearchResult(JSONObject loadResult) {
-		return loadResult.getJSONArray("tracks").toList().stream().map(track ->
-				new DefaultAudioTrack(new JSONObject((Map<?, ?>) track).getString("track"))
-		).collect(Collectors.toList());
+	/**
+	 * Decodes the response while it is being received. Failing to read it is a network error, while failing
+	 * to decode it results in a failed load.
+	 */
+	private TrackLoadResult decodeLoadResult(final Reader body) throws IOException {
+		try {
+			return socket.getLavalink().getCodec().decodeLoadResult(body);
+		} catch (final UncheckedIOException exception) {
+			throw exception.getCause();
+		} catch (final Exception exception) {
+			throw new UndecodableResponseException(exception);
+		}
+	}
+
+	private TrackLoadResult decodeLoadResult(final Reader body, final int chunkSize,
+	                                         final StreamingLoadResultHandler callback) throws IOException {
+		try {
+			return socket.getLavalink().getCodec().decodeLoadResult(body, chunkSize, callback::tracksLoaded);
+		} catch (final UncheckedIOException exception) {
+			throw exception.getCause();
+		} catch (final Exception exception) {
+			return TrackLoadResult.failed(new FriendlyException(exception.getMessage(), FriendlyException.Severity.FAULT, exception));
+		}
+	}
+
+	private static Throwable unwrap(Throwable throwable) {
+		if (throwable instanceof CompletionException && throwable.getCause() != null) throwable = throwable.getCause();
+		if (throwable instanceof UncheckedIOException && throwable.getCause() != null) throwable = throwable.getCause();
+		return throwable;
+	}
+
+	private Executor getExecutor() {
+		return socket.getLavalink().getExecutionStrategy().getExecutor();
+	}
+
+	private static List<AudioTrack> transformSearchResult(TrackLoadResult loadResult) {
+		return loadResult.getTracks();
 	}
 
 	private String buildBaseAddress() {
 		return socket.getRemoteUri().toString()
 				.replaceFirst("ws://", "http://")
-				.replaceFirst("wss://", "https://")
-				.concat("/loadtracks?identifier=");
+				.replaceFirst("wss://", "https://");
+	}
+
+	private RestTransport buildTransport() {
+		final ConnectionKeepAliveStrategy keepAliveStrategy = buildKeepAliveStrategy(config.getKeepAliveMs());
+		final RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(config.getConnectTimeoutMs())
+				.setSocketTimeout(config.getSocketTimeoutMs())
+				.setConnectionRequestTimeout(config.getConnectionRequestTimeoutMs())
+				.build();
+
+		if (engine == HttpEngine.ASYNC) {
+			final IOReactorConfig reactorConfig = IOReactorConfig.custom()
+					.setConnectTimeout(config.getConnectTimeoutMs())
+					.setSoTimeout(config.getSocketTimeoutMs())
+					.build();
+			final PoolingNHttpClientConnectionManager connectionManager;
+			try {
+				connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(reactorConfig));
+			} catch (final IOReactorException e) {
+				throw new IllegalStateException("Failed to create I/O reactor", e);
+			}
+			connectionManager.setMaxTotal(config.getMaxConnections());
+			connectionManager.setDefaultMaxPerRoute(config.getMaxConnections());
+
+			final HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClientBuilder.create()
+					.setConnectionManager(connectionManager)
+					.setKeepAliveStrategy(keepAliveStrategy)
+					.setDefaultRequestConfig(requestConfig);
+			if (asyncBuilderConsumer != null) asyncBuilderConsumer.accept(httpClientBuilder);
+
+			return new AsyncRestTransport(httpClientBuilder.build(), connectionManager, config.getIdleEvictionMs());
+		}
+
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(config.getMaxConnections());
+		connectionManager.setDefaultMaxPerRoute(config.getMaxConnections());
+
+		final HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+				.setConnectionManager(connectionManager)
+				.setKeepAliveStrategy(keepAliveStrategy)
+				.setDefaultRequestConfig(requestConfig)
+				.evictExpiredConnections()
+				.evictIdleConnections(config.getIdleEvictionMs(), TimeUnit.MILLISECONDS);
+		if (builderConsumer != null) builderConsumer.accept(httpClientBuilder);
+
+		return new BlockingRestTransport(httpClientBuilder.build(), connectionManager);
 	}
 
-	private HttpClient buildClient() {
-		final HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
-		if (builderConsumer == null) return httpClientBuilder.build();
+	/**
+	 * Honours the keep alive requested by the node, but never keeps a connection longer than configured
+	 */
+	private static ConnectionKeepAliveStrategy buildKeepAliveStrategy(final long keepAliveMs) {
+		return (response, context) -> {
+			final long requested = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return requested > 0 ? Math.min(requested, keepAliveMs) : keepAliveMs;
+		};
+	}
+
+	void close() {
+		transport.close();
+	}
+
+	/**
+	 * Carries the failed load that a response which could not be decoded results in, past the cache.
+	 */
+	private static final class UndecodableResponseException extends RuntimeException {
+
+		private final TrackLoadResult loadResult;
 
-		builderConsumer.accept(httpClientBuilder);
-		return httpClientBuilder.build();
+		private UndecodableResponseException(final Exception cause) {
+			super(cause);
+			this.loadResult = TrackLoadResult.failed(
+					new FriendlyException(cause.getMessage(), FriendlyException.Severity.FAULT, cause));
+		}
 	}
 
-	private JSONObject apiGet(final String url, final String auth) throws IOException {
-		final HttpGet request = new HttpGet(url);
-		request.addHeader(HttpHeaders.AUTHORIZATION, auth);
+	/**
+	 * Runs a fixed amount of tasks with at most a given amount of them in flight, and collects their results in order.
+	 * Tasks that complete immediately, such as cache hits, are drained in a loop rather than recursively.
+	 */
+	private static final class BoundedBatch<T> {
+
+		private final int count;
+		private final int maxConcurrency;
+		private final IntFunction<CompletableFuture<T>> task;
+		private final AtomicReferenceArray<T> results;
+		private final AtomicInteger next = new AtomicInteger();
+		private final AtomicInteger remaining;
+		private final CompletableFuture<List<T>> combined = new CompletableFuture<>();
+
+		private BoundedBatch(final int count, final int maxConcurrency, final IntFunction<CompletableFuture<T>> task) {
+			this.count = count;
+			this.maxConcurrency = maxConcurrency;
+			this.task = task;
+			this.results = new AtomicReferenceArray<>(count);
+			this.remaining = new AtomicInteger(count);
+		}
 
-		final HttpResponse httpResponse = httpClient.execute(request);
-		final int statusCode = httpResponse.getStatusLine().getStatusCode();
-		if (statusCode != 200) throw new IOException("Invalid API Request Status Code: " + statusCode);
+		private CompletableFuture<List<T>> start() {
+			if (count == 0) {
+				combined.complete(new ArrayList<>());
+				return combined;
+			}
 
-		final HttpEntity entity = httpResponse.getEntity();
-		if (entity == null) throw new IOException("Invalid API Response: No Content");
+			for (int i = 0; i < Math.min(count, maxConcurrency); i++) {
+				runNext();
+			}
+			return combined;
+		}
 
-		final String response = EntityUtils.toString(entity);
-		return new JSONObject(response);
+		private void runNext() {
+			int index;
+			while (!combined.isDone() && (index = next.getAndIncrement()) < count) {
+				final CompletableFuture<T> future;
+				try {
+					future = task.apply(index);
+				} catch (final Throwable throwable) {
+					combined.completeExceptionally(throwable);
+					return;
+				}
+
+				if (future.isDone()) {
+					onComplete(index, future);
+					continue;
+				}
+
+				final int i = index;
+				future.whenComplete((result, throwable) -> {
+					onComplete(i, future);
+					runNext();
+				});
+				return;
+			}
+		}
+
+		private void onComplete(final int index, final CompletableFuture<T> future) {
+			final T result;
+			try {
+				result = future.join();
+			} catch (final Throwable throwable) {
+				combined.completeExceptionally(unwrap(throwable));
+				return;
+			}
+
+			results.set(index, result);
+			if (remaining.decrementAndGet() == 0) {
+				final List<T> list = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					list.add(results.get(i));
+				}
+				combined.complete(list);
+			}
+		}
 	}
 
 	private static final class TrackLoadResultHandler {
 
-		private final JSONObject loadResult;
+		private final TrackLoadResult loadResult;
 
-		private TrackLoadResultHandler(JSONObject loadResult) {
+		private TrackLoadResultHandler(TrackLoadResult loadResult) {
 			this.loadResult = loadResult;
 		}
 
 		private AudioTrack handleTrackLoaded() {
-			JSONObject trackObject = loadResult.getJSONArray("tracks").getJSONObject(0);
-			String singleTrackBase64 = trackObject.getString("track");
-			AudioTrackInfo trackInfo = DefaultAudioTrackInfo.fromJSON(trackObject.getJSONObject("info"));
-
-			return new DefaultAudioTrack(singleTrackBase64, trackInfo);
+			return loadResult.getTracks().get(0);
 		}
 
 		private AudioPlaylist handlePlaylistLoaded() {
-			JSONArray trackData = loadResult.getJSONArray("tracks");
-			final List<AudioTrack> tracks = new ArrayList<>();
-
-			for (Object track : trackData) {
-				String trackBase64 = ((JSONObject) track).getString("track");
-				AudioTrackInfo trackInfo = DefaultAudioTrackInfo.fromJSON(((JSONObject) track).getJSONObject("info"));
-
-				tracks.add(new DefaultAudioTrack(trackBase64, trackInfo));
-			}
+			final List<AudioTrack> tracks = loadResult.getTracks();
 
 			if (tracks.size() == 0) {
 				throw new FriendlyException("Playlist is empty", FriendlyException.Severity.SUSPICIOUS, new IllegalStateException("Empty playlist"));
 			}
 
-			final JSONObject playlistInfo = loadResult.getJSONObject("playlistInfo");
-
-			return new DefaultAudioPlaylist(playlistInfo.getString("name"), tracks, playlistInfo.optInt("selectedTrack", -1));
+			return new DefaultAudioPlaylist(loadResult.getPlaylistName(), tracks, loadResult.getSelectedTrack());
 		}
 
 		private List<AudioTrack> handleSearchResultLoaded() {
-			JSONArray trackData = loadResult.getJSONArray("tracks");
-			List<AudioTrack> tracks = new ArrayList<>();
-
-			for (Object track : trackData) {
-				String trackBase64 = ((JSONObject) track).getString("track");
-				AudioTrackInfo trackInfo = DefaultAudioTrackInfo.fromJSON(((JSONObject) track).getJSONObject("info"));
-
-				tracks.add(new DefaultAudioTrack(trackBase64, trackInfo));
-			}
+			List<AudioTrack> tracks = loadResult.getTracks();
 
 			if (tracks.size() == 0) {
 				throw new FriendlyException("No search results found", FriendlyException.Severity.SUSPICIOUS, new IllegalStateException("No results"));
@@ -245,11 +632,7 @@ public final class LavalinkRestClient {
 		}
 
 		private FriendlyException handleLoadFailed() {
-			JSONObject exception = loadResult.getJSONObject("exception");
-			String message = exception.getString("message");
-			FriendlyException.Severity severity = FriendlyException.Severity.valueOf(exception.getString("severity"));
-
-			return new FriendlyException(message, severity, new Throwable());
+			return loadResult.getException();
 		}
 	}
 }
@@ -24,22 +24,24 @@ package lavalink.client.io;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
-import lavalink.client.player.LavalinkPlayer;
-import lavalink.client.player.event.*;
-import lavalink.client.player.track.DefaultAudioTrack;
-import lavalink.client.player.track.AudioTrackEndReason;
 import org.java_websocket.drafts.Draft;
 import org.java_websocket.handshake.ServerHandshake;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.net.ConnectException;
 import java.net.URI;
 import java.nio.channels.NotYetConnectedException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class LavalinkSocket extends ReusableWebSocket {
 
@@ -50,24 +52,56 @@ public class LavalinkSocket extends ReusableWebSocket {
 	private final String name;
 	@NonNull
 	private final String password;
+	@Nullable
+	private final String region;
 	@NonNull
 	private final Lavalink<?> lavalink;
 	@Nullable
 	private RemoteStats stats;
-	long lastReconnectAttempt = 0;
+	@Nullable
+	private volatile LavalinkLoadBalancer.StatPenalties statPenalties;
+	/* Players of this client that are playing a track on this node, maintained by their links */
+	private final AtomicInteger playingPlayerCount = new AtomicInteger();
+	/* Links assigned to this node, maintained by the links themselves */
+	private final Set<Link> links = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger linksAssignedSinceStats = new AtomicInteger();
+	@Nullable
+	private volatile NodeDrain drain = null;
+	/* Failed attempts since we were last connected, which the backoff grows with */
 	private int reconnectsAttempted = 0;
+	private final AtomicLong reconnectAttempts = new AtomicLong();
+	private final AtomicLong reconnectSuccesses = new AtomicLong();
+	/* Guarded by this */
+	@Nullable
+	private ScheduledFuture<?> reconnectFuture = null;
+	private volatile long nextReconnectTime = -1;
+	private volatile boolean shutdown = false;
+	/* When we last heard from the node, which is how long it is known to have been alive */
+	private volatile long lastMessageTime = -1;
 	@NonNull
 	private final URI remoteUri;
 	private final LavalinkRestClient restClient;
 	private boolean available = false;
+	private final SocketMessageDispatcher dispatcher;
+	@Nullable
+	private final OutboundQueue outboundQueue;
 
-	LavalinkSocket(@NonNull String name, @NonNull Lavalink<?> lavalink, @NonNull URI serverUri, Draft protocolDraft, Map<String, String> headers) {
+	LavalinkSocket(@NonNull String name, @Nullable String region, @NonNull Lavalink<?> lavalink, @NonNull URI serverUri,
+				   Draft protocolDraft, Map<String, String> headers, @Nullable OutboundQueueConfig outboundQueueConfig) {
 		super(serverUri, protocolDraft, headers, TIMEOUT_MS);
 		this.name = name;
+		this.region = region;
 		this.password = headers.get("Authorization");
 		this.lavalink = lavalink;
 		this.remoteUri = serverUri;
 		this.restClient = new LavalinkRestClient(this);
+		this.dispatcher = new SocketMessageDispatcher(this, lavalink);
+		this.outboundQueue = outboundQueueConfig == null ? null : new OutboundQueue(this, outboundQueueConfig);
+	}
+
+	@NonNull
+	Lavalink<?> getLavalink() {
+		return lavalink;
 	}
 
 	@NonNull
@@ -79,92 +113,18 @@ public class LavalinkSocket extends ReusableWebSocket {
 	public void onOpen(ServerHandshake handshakeData) {
 		log.info("Received handshake from server");
 		available = true;
+		lastMessageTime = System.currentTimeMillis();
 		lavalink.loadBalancer.onNodeConnect(this);
-		reconnectsAttempted = 0;
+		synchronized (this) {
+			if (reconnectsAttempted > 0) reconnectSuccesses.incrementAndGet();
+			reconnectsAttempted = 0;
+		}
 	}
 
 	@Override
 	public void onMessage(String message) {
-		JSONObject json = new JSONObject(message);
-
-		if (!Objects.equals(json.getString("op"), "playerUpdate")) {
-			log.debug(message);
-		}
-
-		switch (json.getString("op")) {
-			case "playerUpdate":
-				lavalink.getLink(json.getLong("guildId"))
-						.getPlayer()
-						.provideState(json.getJSONObject("state"));
-				break;
-			case "stats":
-				stats = new RemoteStats(json);
-				break;
-			case "event":
-				try {
-					handleEvent(json);
-				} catch (IOException e) {
-					throw new RuntimeException(e);
-				}
-				break;
-			default:
-				log.warn("Unexpected operation: " + json.getString("op"));
-				break;
-		}
-	}
-
-	/**
-	 * Implementation details:
-	 * The only events extending {@link lavalink.client.player.event.PlayerEvent} produced by the remote server are these:
-	 * 1. TrackEndEvent
-	 * 2. TrackExceptionEvent
-	 * 3. TrackStuckEvent
-	 * 4. WebSocketClosedEvent
-	 */
-	private void handleEvent(JSONObject json) throws IOException {
-		long guildId = json.getLong("guildId");
-		Link link = lavalink.getLink(guildId);
-		LavalinkPlayer player = lavalink.getLink(guildId).getPlayer();
-		PlayerEvent event = null;
-
-		switch (json.getString("type")) {
-			case "TrackStartEvent":
-				event = new TrackStartEvent(player, new DefaultAudioTrack(json.getString("track"), player.getPlayingTrack()));
-				break;
-			case "TrackEndEvent":
-				AudioTrackEndReason endReason = AudioTrackEndReason.valueOf(json.getString("reason"));
-				event = new TrackEndEvent(player, new DefaultAudioTrack(json.getString("track"), player.getPlayingTrack()), endReason);
-				if (endReason != AudioTrackEndReason.REPLACED && endReason != AudioTrackEndReason.STOPPED) {
-					player.clearTrack();
-				}
-				break;
-			case "TrackExceptionEvent":
-				Exception ex;
-				if (json.has("exception")) {
-					JSONObject jsonEx = json.getJSONObject("exception");
-					ex = new FriendlyException(jsonEx.getString("message"), FriendlyException.Severity.valueOf(jsonEx.getString("severity")), new RuntimeException(jsonEx.getString("cause"))
-					);
-				} else {
-					ex = new RemoteTrackException(json.getString("error"));
-				}
-
-				event = new TrackExceptionEvent(player, new DefaultAudioTrack(json.getString("track"), player.getPlayingTrack()), ex);
-				break;
-			case "TrackStuckEvent":
-				event = new TrackStuckEvent(player, new DefaultAudioTrack(json.getString("track"), player.getPlayingTrack()), json.getLong("thresholdMs"));
-				break;
-			case "WebSocketClosedEvent":
-				// Unlike the other events, this is handled by the Link instead of the LavalinkPlayer,
-				// as this event is more relevant to the implementation of Link.
-
-				link.onVoiceWebSocketClosed(json.getInt("code"), json.getString("reason"), json.getBoolean("byRemote"));
-				break;
-			default:
-				log.warn("Unexpected event type: " + json.getString("type"));
-				break;
-		}
-
-		if (event != null) player.emitEvent(event);
+		lastMessageTime = System.currentTimeMillis();
+		dispatcher.dispatch(message);
 	}
 
 	@Override
@@ -177,12 +137,17 @@ public class LavalinkSocket extends ReusableWebSocket {
 			log.warn("Connection to " + getRemoteUri() + " closed unexpectedly with reason " + code + ": " + reason + " :: Remote=" + remote);
 		}
 		lavalink.loadBalancer.onNodeDisconnect(this);
+		scheduleReconnect();
 	}
 
 	@Override
 	public void onError(Exception ex) {
 		if (ex instanceof ConnectException) {
-			log.warn("Failed to connect to " + getRemoteUri() + ", retrying in " + getReconnectInterval() / 1000 + " seconds.");
+			scheduleReconnect();
+			long nextReconnectTime = this.nextReconnectTime;
+			if (nextReconnectTime == -1) return; // Removed, so we won't retry
+			long delay = Math.max(0, nextReconnectTime - System.currentTimeMillis());
+			log.warn("Failed to connect to " + getRemoteUri() + ", retrying in " + delay + " ms.");
 			return;
 		}
 
@@ -191,28 +156,109 @@ public class LavalinkSocket extends ReusableWebSocket {
 
 	@Override
 	public void send(String text) throws NotYetConnectedException {
+		send(text, -1, MessagePriority.INTERACTIVE);
+	}
+
+	/**
+	 * Sends a message concerning a guild. The priority only has an effect if the outbound queue is enabled.
+	 *
+	 * @param guildId  the guild the message concerns, or -1 if none
+	 * @param priority the lane to send the message through
+	 */
+	public void send(@NonNull String text, long guildId, @NonNull MessagePriority priority) {
 		// Note: If we lose connection we will reconnect and initialize properly
 		if (isOpen()) {
-			super.send(text);
+			if (outboundQueue != null) {
+				outboundQueue.offer(text, guildId, priority);
+			} else {
+				super.send(text);
+			}
 		} else if (isConnecting()) {
 			log.warn("Attempting to send messages to " + getRemoteUri() + " WHILE connecting. Ignoring.");
 		}
 	}
 
+	/**
+	 * Closes this socket for good, as opposed to {@link #close()} after which it will be reconnected.
+	 */
+	void shutdown() {
+		shutdown = true;
+		synchronized (this) {
+			if (reconnectFuture != null) reconnectFuture.cancel(false);
+			reconnectFuture = null;
+			nextReconnectTime = -1;
+		}
+		if (outboundQueue != null) outboundQueue.shutdown();
+		restClient.close();
+		close();
+	}
+
+	/**
+	 * @return the outbound queue of this socket, or null if messages are written directly
+	 * @see Lavalink#setOutboundQueueConfig(OutboundQueueConfig)
+	 */
+	@Nullable
+	public OutboundQueue getOutboundQueue() {
+		return outboundQueue;
+	}
+
 	@NonNull
 	@SuppressWarnings("unused")
 	public URI getRemoteUri() {
 		return remoteUri;
 	}
 
-	void attemptReconnect() {
-		lastReconnectAttempt = System.currentTimeMillis();
-		reconnectsAttempted++;
-		connect();
+	/**
+	 * Schedules an attempt to reconnect, unless one is already pending or this node has been removed.
+	 * The delay is random, up to a bound that grows exponentially with the failed attempts.
+	 */
+	synchronized void scheduleReconnect() {
+		if (shutdown || reconnectFuture != null || !lavalink.getNodes().contains(this)) return;
+
+		long delay = ThreadLocalRandom.current().nextLong(lavalink.getReconnectConfig().getDelayBoundMs(reconnectsAttempted) + 1);
+		try {
+			reconnectFuture = lavalink.schedule(this::attemptReconnect, delay);
+			nextReconnectTime = System.currentTimeMillis() + delay;
+		} catch (RejectedExecutionException e) {
+			log.debug("Not reconnecting to " + getRemoteUri() + " as Lavalink is shutting down");
+		}
 	}
 
-	long getReconnectInterval() {
-		return reconnectsAttempted * 2000L - 2000;
+	private void attemptReconnect() {
+		synchronized (this) {
+			reconnectFuture = null;
+			nextReconnectTime = -1;
+			if (shutdown || !lavalink.getNodes().contains(this) || isOpen() || isConnecting()) return;
+			reconnectsAttempted++;
+		}
+		reconnectAttempts.incrementAndGet();
+		try {
+			connect();
+		} catch (RuntimeException e) {
+			log.error("Failed to reconnect to " + getRemoteUri(), e);
+			scheduleReconnect();
+		}
+	}
+
+	/**
+	 * @return the amount of reconnect attempts made so far
+	 */
+	public long getReconnectAttempts() {
+		return reconnectAttempts.get();
+	}
+
+	/**
+	 * @return the amount of reconnect attempts that resulted in a connection
+	 */
+	public long getReconnectSuccesses() {
+		return reconnectSuccesses.get();
+	}
+
+	/**
+	 * @return the time of the next reconnect attempt in epoch milliseconds, or -1 if none is scheduled
+	 */
+	public long getNextReconnectTime() {
+		return nextReconnectTime;
 	}
 
 	@Nullable
@@ -220,15 +266,105 @@ public class LavalinkSocket extends ReusableWebSocket {
 		return stats;
 	}
 
+	void setStats(@Nullable RemoteStats stats) {
+		this.statPenalties = stats == null ? null : new LavalinkLoadBalancer.StatPenalties(stats);
+		this.stats = stats;
+		linksAssignedSinceStats.set(0);
+	}
+
+	@Nullable
+	LavalinkLoadBalancer.StatPenalties getStatPenalties() {
+		return statPenalties;
+	}
+
+	/**
+	 * @return the amount of players of this client that are playing a track on this node, which unlike
+	 * {@link RemoteStats#getPlayingPlayers()} excludes the players of other clients and is always up to date
+	 */
+	public int getPlayingPlayerCount() {
+		return playingPlayerCount.get();
+	}
+
+	/**
+	 * @return the links assigned to this node
+	 */
+	@NonNull
+	public Collection<Link> getLinks() {
+		return Collections.unmodifiableSet(links);
+	}
+
+	/**
+	 * @return the amount of links assigned or moved to this node since its last stats message
+	 */
+	public int getLinksAssignedSinceStats() {
+		return linksAssignedSinceStats.get();
+	}
+
+	void addLink(Link link) {
+		if (links.add(link)) linksAssignedSinceStats.incrementAndGet();
+	}
+
+	void removeLink(Link link) {
+		links.remove(link);
+	}
+
+	/**
+	 * @return the drain of this node, or null if it is not being drained
+	 * @see Lavalink#drainNode(String, int)
+	 */
+	@Nullable
+	public NodeDrain getDrain() {
+		return drain;
+	}
+
+	/**
+	 * @return whether this node is being drained, which excludes it from the placement of links
+	 */
+	public boolean isDraining() {
+		return drain != null;
+	}
+
+	void setDrain(@Nullable NodeDrain drain) {
+		this.drain = drain;
+	}
+
+	void onDrainStopped(NodeDrain drain) {
+		if (this.drain == drain) this.drain = null;
+	}
+
+	void onPlayerStartedPlaying() {
+		playingPlayerCount.incrementAndGet();
+	}
+
+	void onPlayerStoppedPlaying() {
+		playingPlayerCount.decrementAndGet();
+	}
+
 	public boolean isAvailable() {
 		return available && isOpen() && !isClosing();
 	}
 
+	/**
+	 * @return the time we last received a message from this node, in epoch milliseconds, or -1 if we never did
+	 */
+	long getLastMessageTime() {
+		return lastMessageTime;
+	}
+
 	@NonNull
 	public String getName() {
 		return name;
 	}
 
+	/**
+	 * @return the region this node was added with, if any
+	 * @see ConsistentHashStrategy#setRegionResolver(java.util.function.LongFunction)
+	 */
+	@Nullable
+	public String getRegion() {
+		return region;
+	}
+
 	@NonNull
 	public String getPassword() {
 		return password;
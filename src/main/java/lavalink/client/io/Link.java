@@ -24,6 +24,8 @@ package lavalink.client.io;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.json.LavalinkCodec;
+import lavalink.client.io.json.LinkMessageWriter;
 import lavalink.client.player.LavalinkPlayer;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
 import org.json.JSONObject;
@@ -42,8 +44,13 @@ abstract public class Link {
     private final Lavalink<?> lavalink;
     protected final long guildId;
     private LavalinkPlayer player;
+    /* Cached along with the codec that created it, as the codec may be replaced */
+    @Nullable
+    private volatile CodecWriter messageWriter = null;
     private volatile long channelId = -1;
     private volatile LavalinkSocket node = null;
+    /* The node that counts our player as playing, if any */
+    private LavalinkSocket playingOn = null;
     /* May only be set by setState() */
     private volatile State state = State.NOT_CONNECTED;
 
@@ -75,18 +82,59 @@ abstract public class Link {
     @SuppressWarnings("unused")
     public void resetPlayer() {
         player = null;
+        updatePlayingState();
     }
 
     public long getGuildId() {
         return guildId;
     }
 
+    /**
+     * @return the writer used to encode the messages this link and its player send to the node
+     */
+    @NonNull
+    public LinkMessageWriter getMessageWriter() {
+        LavalinkCodec codec = lavalink.getCodec();
+        CodecWriter cached = messageWriter;
+        if (cached == null || cached.codec != codec) {
+            cached = new CodecWriter(codec, codec.newLinkWriter(guildId));
+            messageWriter = cached;
+        }
+        return cached.writer;
+    }
+
 
     public void changeNode(LavalinkSocket newNode) {
-        node = newNode;
+        setNode(newNode);
+        replayOnNode();
+    }
+
+    /**
+     * Moves this link from the given node to another one, unless it has already left the given node.
+     *
+     * @param oldNode the node this link is expected to be on
+     * @param newNode the node to move to, or null to wait for one to become available
+     * @param destroy whether to destroy the player on the old node, which is still up, so that only the new one plays
+     * @return false if this link was no longer on the old node, in which case it is left alone
+     */
+    boolean moveFrom(LavalinkSocket oldNode, @Nullable LavalinkSocket newNode, boolean destroy) {
+        synchronized (this) {
+            if (node != oldNode) return false;
+            setNode(newNode);
+        }
+        // Sent without holding our lock, as the outbound queue may make us wait for room in the bulk lane
+        if (destroy && oldNode.isAvailable()) {
+            oldNode.send(getMessageWriter().destroy(), guildId, MessagePriority.BULK);
+        }
+        if (newNode != null) replayOnNode();
+        return true;
+    }
+
+    private void replayOnNode() {
         if (lastVoiceServerUpdate != null) {
-            onVoiceServerUpdate(getLastVoiceServerUpdate(), lastSessionId);
-            player.onNodeChange();
+            // Replays compete with interactive commands during failover, so they go through the bulk lane
+            sendVoiceUpdate(MessagePriority.BULK);
+            if (player != null) player.onNodeChange();
         }
     }
 
@@ -97,11 +145,8 @@ abstract public class Link {
         setState(State.NOT_CONNECTED);
         LavalinkSocket socket = getNode(false);
         if (socket != null && state != State.DESTROYING && state != State.DESTROYED) {
-            socket.send(new JSONObject()
-                    .put("op", "destroy")
-                    .put("guildId", Long.toString(guildId))
-                    .toString());
-            node = null;
+            socket.send(getMessageWriter().destroy(), guildId, MessagePriority.INTERACTIVE);
+            setNode(null);
         }
     }
 
@@ -123,13 +168,12 @@ abstract public class Link {
             }
         }
         setState(State.DESTROYED);
+        updatePlayingState();
         lavalink.removeDestroyedLink(this);
         LavalinkSocket socket = getNode(false);
         if (socket != null) {
-            socket.send(new JSONObject()
-                    .put("op", "destroy")
-                    .put("guildId", Long.toString(guildId))
-                    .toString());
+            socket.removeLink(this);
+            socket.send(getMessageWriter().destroy(), guildId, MessagePriority.INTERACTIVE);
         }
     }
 
@@ -154,12 +198,46 @@ abstract public class Link {
     @SuppressWarnings("WeakerAccess")
     public LavalinkSocket getNode(boolean selectIfAbsent) {
         if (selectIfAbsent && node == null) {
-            node = lavalink.loadBalancer.determineBestSocket(guildId);
+            setNode(lavalink.loadBalancer.determineBestSocket(guildId));
             if (player != null) player.onNodeChange();
         }
         return node;
     }
 
+    private synchronized void setNode(@Nullable LavalinkSocket newNode) {
+        LavalinkSocket oldNode = node;
+        node = newNode;
+        if (oldNode != newNode) {
+            if (oldNode != null) {
+                // A node that went away stopped playing some time before we noticed, when we last heard from it
+                LavalinkPlayer player = this.player;
+                if (player != null) {
+                    player.freezePosition(oldNode.isAvailable() ? System.currentTimeMillis() : oldNode.getLastMessageTime());
+                }
+                oldNode.removeLink(this);
+            }
+            if (newNode != null && state != State.DESTROYED) newNode.addLink(this);
+        }
+        updatePlayingState();
+    }
+
+    /**
+     * Keeps the playing player count of the nodes up to date. Invoked whenever the track or pause state of our
+     * player changes, or when we move to another node.
+     */
+    public synchronized void updatePlayingState() {
+        LavalinkPlayer player = this.player;
+        LavalinkSocket playing = null;
+        if (player != null && player.getPlayingTrack() != null && !player.isPaused() && state != State.DESTROYED) {
+            playing = node;
+        }
+        if (playing == playingOn) return;
+
+        if (playingOn != null) playingOn.onPlayerStoppedPlaying();
+        if (playing != null) playing.onPlayerStartedPlaying();
+        playingOn = playing;
+    }
+
     /**
      * @return The channel we are currently connect to
      */
@@ -217,15 +295,13 @@ abstract public class Link {
         lastVoiceServerUpdate = json;
         lastSessionId = sessionId;
 
-        // Send WS message
-        JSONObject out = new JSONObject();
-        out.put("op", "voiceUpdate");
-        out.put("sessionId", sessionId);
-        out.put("guildId", Long.toString(guildId));
-        out.put("event", lastVoiceServerUpdate);
+        sendVoiceUpdate(MessagePriority.INTERACTIVE);
+    }
 
+    private void sendVoiceUpdate(MessagePriority priority) {
+        // Send WS message
         //noinspection ConstantConditions
-        getNode(true).send(out.toString());
+        getNode(true).send(getMessageWriter().voiceUpdate(lastSessionId, lastVoiceServerUpdate), guildId, priority);
         setState(Link.State.CONNECTED);
     }
 
@@ -276,4 +352,17 @@ abstract public class Link {
         DESTROYED
     }
 
+    /**
+     * A message writer along with the codec that created it, so that both are replaced at once.
+     */
+    private static final class CodecWriter {
+
+        private final LavalinkCodec codec;
+        private final LinkMessageWriter writer;
+
+        private CodecWriter(LavalinkCodec codec, LinkMessageWriter writer) {
+            this.codec = codec;
+            this.writer = writer;
+        }
+    }
 }
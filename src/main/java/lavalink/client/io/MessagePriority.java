@@ -20,35 +20,24 @@
  * SOFTWARE.
  */
 
-package lavalink.client.io;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.util.List;
+package lavalink.client.io;
 
-public class ReconnectTask implements Runnable {
+/**
+ * The lane a message is sent through when the {@link OutboundQueue outbound queue} is enabled.
+ * Without the queue, messages are written in the order they are sent regardless of priority.
+ */
+public enum MessagePriority {
 
-    private static final Logger log = LoggerFactory.getLogger(ReconnectTask.class);
-    private final Lavalink<? extends Link> lavalink;
+    /**
+     * Commands issued by users, such as pausing or seeking. Always written first.
+     */
+    INTERACTIVE,
 
-    ReconnectTask(Lavalink<? extends Link> lavalink) {
-        this.lavalink = lavalink;
-    }
+    /**
+     * Bulk traffic, such as the messages replayed when links are moved to another node.
+     * Only written once no interactive messages are waiting.
+     */
+    BULK
 
-    @Override
-    public void run() {
-        try {
-            List<LavalinkSocket> nodes = lavalink.getNodes();
-            nodes.forEach(lavalinkSocket -> {
-                if (lavalinkSocket.isClosed()
-                        && !lavalinkSocket.isConnecting()
-                        && System.currentTimeMillis() - lavalinkSocket.lastReconnectAttempt > lavalinkSocket.getReconnectInterval()) {
-                    lavalinkSocket.attemptReconnect();
-                }
-            });
-        } catch (Exception e) {
-            log.error("Caught exception in reconnect thread", e);
-        }
-    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Takes a node out of rotation and moves its links to other nodes at a limited rate. The players resume at their
+ * current position. Once the node has no links left, it is closed and removed.
+ * <p>
+ * Links are only moved while another node is available, so a drain waits for one if needed.
+ *
+ * @see Lavalink#drainNode(String, int)
+ */
+@SuppressWarnings("unused")
+public final class NodeDrain implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeDrain.class);
+
+    static final long INTERVAL_MS = 100;
+
+    private final Lavalink<?> lavalink;
+    private final LavalinkSocket node;
+    private final int linksPerSecond;
+    private final int initialLinks;
+    private final AtomicInteger migratedLinks = new AtomicInteger();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    /* Links that may be moved, accrued at the configured rate. Only touched by run() */
+    private double allowance = 0;
+    private volatile ScheduledFuture<?> task;
+    private volatile boolean cancelled = false;
+
+    NodeDrain(Lavalink<?> lavalink, LavalinkSocket node, int linksPerSecond) {
+        this.lavalink = lavalink;
+        this.node = node;
+        this.linksPerSecond = linksPerSecond;
+        this.initialLinks = node.getLinks().size();
+    }
+
+    void setTask(ScheduledFuture<?> task) {
+        this.task = task;
+        if (future.isDone()) task.cancel(false);
+    }
+
+    @NonNull
+    public LavalinkSocket getNode() {
+        return node;
+    }
+
+    public int getLinksPerSecond() {
+        return linksPerSecond;
+    }
+
+    /**
+     * @return the amount of links the node had when the drain started
+     */
+    public int getInitialLinks() {
+        return initialLinks;
+    }
+
+    /**
+     * @return the amount of links moved to other nodes so far
+     */
+    public int getMigratedLinks() {
+        return migratedLinks.get();
+    }
+
+    /**
+     * @return the amount of links still on the node
+     */
+    public int getRemainingLinks() {
+        return node.getLinks().size();
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * @return a future completed once the node has been removed, or cancelled along with the drain
+     */
+    @NonNull
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    /**
+     * Stops the drain and puts the node back into rotation. Links that have already been moved stay where they are.
+     *
+     * @return false if the drain had already finished
+     */
+    public boolean cancel() {
+        if (future.isDone()) return false;
+        cancelled = true;
+        stop();
+        node.onDrainStopped(this);
+        return future.cancel(false);
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Runs a step of this drain on the given executor, unless the previous step is still waiting or in progress
+     */
+    void schedule(Executor executor) {
+        if (!scheduled.compareAndSet(false, true)) return;
+        try {
+            executor.execute(this);
+        } catch (Exception e) {
+            scheduled.set(false);
+            log.error("Failed to schedule drain of node " + node.getName(), e);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (cancelled) return;
+            allowance = Math.min(linksPerSecond, allowance + linksPerSecond * INTERVAL_MS / 1000d);
+
+            Iterator<Link> iterator = node.getLinks().iterator();
+            while (allowance >= 1 && iterator.hasNext() && !cancelled) {
+                Link link = iterator.next();
+                LavalinkSocket target;
+                try {
+                    target = lavalink.loadBalancer.determineBestSocket(link.getGuildId());
+                } catch (IllegalStateException e) {
+                    return; // No other node is available right now
+                }
+                // The link may have moved on its own since we listed it, in which case it is not ours to move
+                if (!link.moveFrom(node, target, true)) continue;
+                migratedLinks.incrementAndGet();
+                allowance--;
+            }
+
+            if (!cancelled && node.getLinks().isEmpty()) {
+                stop();
+                lavalink.removeNode(node);
+                log.info("Drained node " + node.getName() + ", moved " + migratedLinks.get() + " links");
+                future.complete(null);
+            }
+        } catch (Exception e) {
+            log.error("Caught exception while draining node " + node.getName(), e);
+        } finally {
+            scheduled.set(false);
+        }
+    }
+
+    private void stop() {
+        ScheduledFuture<?> task = this.task;
+        if (task != null) task.cancel(false);
+    }
+
+    @Override
+    public String toString() {
+        return "NodeDrain{" +
+                "node=" + node.getName() +
+                ", linksPerSecond=" + linksPerSecond +
+                ", initialLinks=" + initialLinks +
+                ", migratedLinks=" + migratedLinks.get() +
+                ", remainingLinks=" + getRemainingLinks() +
+                ", done=" + isDone() +
+                '}';
+    }
+}
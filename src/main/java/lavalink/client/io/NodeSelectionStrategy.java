@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects the node for a link out of the available ones.
+ * <p>
+ * The player penalty of a node counts the players of this client as they start and stop playing, so a burst of new
+ * links that start playing does not pile onto the node that looked best when the last stats message arrived.
+ *
+ * @see LavalinkLoadBalancer#setNodeSelectionStrategy(NodeSelectionStrategy)
+ */
+@FunctionalInterface
+public interface NodeSelectionStrategy {
+
+    /**
+     * @param guildId    the guild of the link
+     * @param candidates the penalties of the available nodes, never empty
+     * @return the node to use, which must be one of the candidates
+     */
+    @NonNull
+    LavalinkSocket select(long guildId, @NonNull List<LavalinkLoadBalancer.Penalties> candidates);
+
+    /**
+     * Selects the node with the lowest total penalty. This is the default.
+     */
+    @NonNull
+    static NodeSelectionStrategy minPenalty() {
+        return (guildId, candidates) -> {
+            LavalinkLoadBalancer.Penalties leastPenalty = candidates.get(0);
+            for (int i = 1; i < candidates.size(); i++) {
+                if (candidates.get(i).getTotal() < leastPenalty.getTotal()) leastPenalty = candidates.get(i);
+            }
+            return leastPenalty.getSocket();
+        };
+    }
+
+    /**
+     * Picks two different nodes at random and selects the one with the lower total penalty. Spreads bursts of new
+     * links better than {@link #minPenalty()}, while still avoiding the most loaded nodes.
+     */
+    @NonNull
+    static NodeSelectionStrategy powerOfTwoChoices() {
+        return (guildId, candidates) -> {
+            if (candidates.size() == 1) return candidates.get(0).getSocket();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(candidates.size());
+            int second = random.nextInt(candidates.size() - 1);
+            if (second >= first) second++;
+
+            LavalinkLoadBalancer.Penalties a = candidates.get(first);
+            LavalinkLoadBalancer.Penalties b = candidates.get(second);
+            return (b.getTotal() < a.getTotal() ? b : a).getSocket();
+        };
+    }
+
+    /**
+     * Selects a node at random, with a chance inversely proportional to its total penalty plus one.
+     */
+    @NonNull
+    static NodeSelectionStrategy weightedRandom() {
+        return (guildId, candidates) -> {
+            double[] weights = new double[candidates.size()];
+            double sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = 1d / (1d + Math.max(0, candidates.get(i).getTotal()));
+                sum += weights[i];
+            }
+
+            double target = ThreadLocalRandom.current().nextDouble(sum);
+            for (int i = 0; i < weights.length; i++) {
+                target -= weights[i];
+                if (target < 0) return candidates.get(i).getSocket();
+            }
+            return candidates.get(weights.length - 1).getSocket();
+        };
+    }
+
+    /**
+     * Places guilds on a consistent hash ring of the node names, with bounded load and optional region affinity.
+     *
+     * @see ConsistentHashStrategy
+     */
+    @NonNull
+    static ConsistentHashStrategy consistentHash() {
+        return new ConsistentHashStrategy();
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.TextFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers the outbound messages of a {@link LavalinkSocket} and writes them from a dedicated thread.
+ * <p>
+ * The writer drains everything that has been queued, up to the configured batch size, and hands it to the websocket
+ * in a single call. If the websocket has not yet written out the previous batch, which happens when the node is slow
+ * to read, the writer waits for it first. Meanwhile the queue fills up, and once it is full senders are blocked
+ * for up to the configured timeout before their message is dropped.
+ * <p>
+ * Each {@link MessagePriority} has its own lane, and interactive messages are always written before bulk ones.
+ * To keep the messages of a guild in order, interactive messages are put in the bulk lane while the same guild
+ * still has bulk messages waiting.
+ *
+ * @see OutboundQueueConfig
+ */
+@SuppressWarnings("unused")
+public class OutboundQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundQueue.class);
+    private static final long BACKOFF_STEP_MS = 1;
+
+    @NonNull
+    private final LavalinkSocket socket;
+    @NonNull
+    private final OutboundQueueConfig config;
+    private final Lane[] lanes;
+    /* One permit per queued message, across all lanes */
+    private final Semaphore pending = new Semaphore(0);
+    /* Guilds with bulk messages waiting, and how many */
+    private final ConcurrentHashMap<Long, Integer> pendingBulk = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean shutdown = false;
+
+    private final AtomicLong batchesFlushed = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+
+    OutboundQueue(@NonNull LavalinkSocket socket, @NonNull OutboundQueueConfig config) {
+        this.socket = socket;
+        this.config = config;
+        MessagePriority[] priorities = MessagePriority.values();
+        this.lanes = new Lane[priorities.length];
+        for (MessagePriority priority : priorities) {
+            lanes[priority.ordinal()] = new Lane(priority, config.getCapacity());
+        }
+        this.writer = new Thread(this::run, "lavalink-writer-" + socket.getName());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a message, blocking while its lane is full.
+     *
+     * @param guildId  the guild the message concerns, or -1 if none
+     * @param priority the lane to send the message through
+     * @return false if the message was dropped
+     */
+    boolean offer(@NonNull String message, long guildId, @NonNull MessagePriority priority) {
+        if (shutdown) return false;
+
+        if (priority != MessagePriority.BULK && guildId != -1 && pendingBulk.containsKey(guildId)) {
+            priority = MessagePriority.BULK;
+        }
+        boolean bulk = priority == MessagePriority.BULK && guildId != -1;
+        if (bulk) pendingBulk.merge(guildId, 1, Integer::sum);
+
+        Lane lane = lanes[priority.ordinal()];
+        Entry entry = new Entry(message, guildId, System.nanoTime());
+        boolean queued = lane.queue.offer(entry);
+        if (!queued) {
+            try {
+                queued = lane.queue.offer(entry, config.getOfferTimeoutMs(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (!queued) {
+            if (bulk) releaseBulk(guildId);
+            lane.dropped.incrementAndGet();
+            log.warn("{} lane of the outbound queue of {} is full, dropping message", priority, socket.getName());
+            return false;
+        }
+
+        pending.release();
+        return true;
+    }
+
+    void shutdown() {
+        shutdown = true;
+        writer.interrupt();
+    }
+
+    private void run() {
+        int maxBatchSize = config.getMaxBatchSize();
+        List<Entry> batch = new ArrayList<>(maxBatchSize);
+        List<Framedata> frames = new ArrayList<>(maxBatchSize);
+
+        while (!shutdown) {
+            try {
+                pending.acquire();
+                awaitBufferedData();
+
+                int permits = 1 + pending.drainPermits();
+                if (permits > maxBatchSize) {
+                    pending.release(permits - maxBatchSize);
+                    permits = maxBatchSize;
+                }
+                for (int i = 0; i < permits; i++) {
+                    batch.add(poll());
+                }
+
+                flush(batch, frames);
+            } catch (InterruptedException e) {
+                if (shutdown) break;
+            } catch (Exception e) {
+                log.error("Caught exception while writing to {}", socket.getName(), e);
+            } finally {
+                batch.clear();
+                frames.clear();
+            }
+        }
+
+        for (Lane lane : lanes) {
+            lane.queue.clear();
+        }
+    }
+
+    /**
+     * Takes the next message in order of priority. Every permit we hold guarantees there is one.
+     */
+    private Entry poll() {
+        for (Lane lane : lanes) {
+            Entry entry = lane.queue.poll();
+            if (entry == null) continue;
+
+            lane.sent.incrementAndGet();
+            lane.waitNanos.addAndGet(System.nanoTime() - entry.enqueuedNanos);
+            if (lane.priority == MessagePriority.BULK && entry.guildId != -1) releaseBulk(entry.guildId);
+            return entry;
+        }
+        throw new IllegalStateException("Held a permit, but all lanes are empty");
+    }
+
+    private void releaseBulk(long guildId) {
+        pendingBulk.computeIfPresent(guildId, (__, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Waits for the websocket to write out what we previously handed it, up to the configured maximum.
+     */
+    private void awaitBufferedData() throws InterruptedException {
+        long waited = 0;
+        while (waited < config.getMaxBackoffMs() && socket.hasBufferedData()) {
+            Thread.sleep(BACKOFF_STEP_MS);
+            waited += BACKOFF_STEP_MS;
+        }
+    }
+
+    private void flush(List<Entry> batch, List<Framedata> frames) {
+        if (!socket.isOpen()) {
+            // Same as sending directly: once we reconnect the players are initialized again
+            log.debug("Discarding {} messages queued for closed socket {}", batch.size(), socket.getName());
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (Entry entry : batch) {
+            TextFrame frame = new TextFrame();
+            frame.setPayload(ByteBuffer.wrap(entry.message.getBytes(StandardCharsets.UTF_8)));
+            frames.add(frame);
+        }
+        socket.sendFrames(frames);
+
+        flushNanos.addAndGet(System.nanoTime() - start);
+        batchesFlushed.incrementAndGet();
+    }
+
+    /**
+     * @return the amount of messages waiting to be written, across all lanes
+     */
+    public int getDepth() {
+        return pending.availablePermits();
+    }
+
+    /**
+     * @return the amount of messages waiting in the given lane
+     */
+    public int getDepth(@NonNull MessagePriority priority) {
+        return lanes[priority.ordinal()].queue.size();
+    }
+
+    public long getMessagesSent(@NonNull MessagePriority priority) {
+        return lanes[priority.ordinal()].sent.get();
+    }
+
+    /**
+     * @return the amount of messages of the given lane dropped because it stayed full for too long
+     */
+    public long getMessagesDropped(@NonNull MessagePriority priority) {
+        return lanes[priority.ordinal()].dropped.get();
+    }
+
+    /**
+     * @return the total time messages of the given lane spent waiting in the queue, in nanoseconds
+     */
+    public long getWaitNanos(@NonNull MessagePriority priority) {
+        return lanes[priority.ordinal()].waitNanos.get();
+    }
+
+    public long getBatchesFlushed() {
+        return batchesFlushed.get();
+    }
+
+    /**
+     * @return the total time spent handing batches to the websocket, in nanoseconds
+     */
+    public long getFlushNanos() {
+        return flushNanos.get();
+    }
+
+    @NonNull
+    public OutboundQueueConfig getConfig() {
+        return config;
+    }
+
+    private static final class Lane {
+        private final MessagePriority priority;
+        private final BlockingQueue<Entry> queue;
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong waitNanos = new AtomicLong();
+
+        private Lane(MessagePriority priority, int capacity) {
+            this.priority = priority;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private static final class Entry {
+        private final String message;
+        private final long guildId;
+        private final long enqueuedNanos;
+
+        private Entry(String message, long guildId, long enqueuedNanos) {
+            this.message = message;
+            this.guildId = guildId;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
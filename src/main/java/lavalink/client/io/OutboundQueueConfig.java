@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import javax.annotation.CheckReturnValue;
+
+/**
+ * Configures the optional outbound queue of each {@link LavalinkSocket}.
+ *
+ * @see Lavalink#setOutboundQueueConfig(OutboundQueueConfig)
+ * @see OutboundQueue
+ */
+@SuppressWarnings("unused")
+public class OutboundQueueConfig {
+
+    private int capacity = 4096;
+    private int maxBatchSize = 64;
+    private long offerTimeoutMs = 1000;
+    private long maxBackoffMs = 100;
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param capacity the amount of messages each socket may buffer before senders are blocked
+     */
+    @CheckReturnValue
+    public OutboundQueueConfig setCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+        this.capacity = capacity;
+        return this;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @param maxBatchSize the maximum amount of messages handed to the websocket at once
+     */
+    @CheckReturnValue
+    public OutboundQueueConfig setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("Max batch size must be at least 1");
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    public long getOfferTimeoutMs() {
+        return offerTimeoutMs;
+    }
+
+    /**
+     * @param offerTimeoutMs how long a sender may be blocked by a full queue before its message is dropped
+     */
+    @CheckReturnValue
+    public OutboundQueueConfig setOfferTimeoutMs(long offerTimeoutMs) {
+        if (offerTimeoutMs < 0) throw new IllegalArgumentException("Offer timeout must not be negative");
+        this.offerTimeoutMs = offerTimeoutMs;
+        return this;
+    }
+
+    public long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    /**
+     * @param maxBackoffMs how long the writer may wait for the websocket to write out previous batches
+     *                     before handing it the next one
+     */
+    @CheckReturnValue
+    public OutboundQueueConfig setMaxBackoffMs(long maxBackoffMs) {
+        if (maxBackoffMs < 0) throw new IllegalArgumentException("Max backoff must not be negative");
+        this.maxBackoffMs = maxBackoffMs;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboundQueueConfig{" +
+                "capacity=" + capacity +
+                ", maxBatchSize=" + maxBatchSize +
+                ", offerTimeoutMs=" + offerTimeoutMs +
+                ", maxBackoffMs=" + maxBackoffMs +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import javax.annotation.CheckReturnValue;
+
+/**
+ * Configures how nodes are reconnected after their connection has been lost or could not be made.
+ * <p>
+ * Each attempt is delayed by a random amount between zero and {@code baseDelayMs * 2^attempts}, capped at
+ * {@code maxDelayMs}. The randomness keeps many clients that lost the same node from reconnecting in lockstep.
+ *
+ * @see Lavalink#setReconnectConfig(ReconnectConfig)
+ */
+@SuppressWarnings("unused")
+public class ReconnectConfig {
+
+    private long baseDelayMs = 1000;
+    private long maxDelayMs = 60000;
+
+    public long getBaseDelayMs() {
+        return baseDelayMs;
+    }
+
+    /**
+     * @param baseDelayMs the maximum delay of the first attempt, which doubles with every failed attempt
+     */
+    @CheckReturnValue
+    public ReconnectConfig setBaseDelayMs(long baseDelayMs) {
+        if (baseDelayMs < 1) throw new IllegalArgumentException("Base delay must be at least 1");
+        this.baseDelayMs = baseDelayMs;
+        return this;
+    }
+
+    public long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    /**
+     * @param maxDelayMs the upper bound of the delay of any attempt
+     */
+    @CheckReturnValue
+    public ReconnectConfig setMaxDelayMs(long maxDelayMs) {
+        if (maxDelayMs < 1) throw new IllegalArgumentException("Max delay must be at least 1");
+        this.maxDelayMs = maxDelayMs;
+        return this;
+    }
+
+    /**
+     * @param attempts the amount of failed attempts since the node was last connected
+     * @return the upper bound of the delay of the next attempt
+     */
+    long getDelayBoundMs(int attempts) {
+        return (long) Math.min(maxDelayMs, baseDelayMs * Math.pow(2, attempts));
+    }
+
+    @Override
+    public String toString() {
+        return "ReconnectConfig{" +
+                "baseDelayMs=" + baseDelayMs +
+                ", maxDelayMs=" + maxDelayMs +
+                '}';
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import javax.annotation.CheckReturnValue;
+
+/**
+ * Configures the connection pool of each {@link LavalinkRestClient}. Every node has its own pool.
+ *
+ * @see Lavalink#setRestClientConfig(RestClientConfig)
+ * @see LavalinkRestClient#setConfig(RestClientConfig)
+ */
+@SuppressWarnings("unused")
+public class RestClientConfig {
+
+    private int maxConnections = 20;
+    private long keepAliveMs = 30000;
+    private long idleEvictionMs = 60000;
+    private int connectTimeoutMs = 5000;
+    private int socketTimeoutMs = 60000;
+    private int connectionRequestTimeoutMs = 10000;
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @param maxConnections the amount of requests that may be in flight to the node at once
+     */
+    @CheckReturnValue
+    public RestClientConfig setMaxConnections(int maxConnections) {
+        if (maxConnections < 1) throw new IllegalArgumentException("Max connections must be at least 1");
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    public long getKeepAliveMs() {
+        return keepAliveMs;
+    }
+
+    /**
+     * @param keepAliveMs how long an idle connection is kept for reuse, unless the node asks for less
+     */
+    @CheckReturnValue
+    public RestClientConfig setKeepAliveMs(long keepAliveMs) {
+        if (keepAliveMs < 0) throw new IllegalArgumentException("Keep alive must not be negative");
+        this.keepAliveMs = keepAliveMs;
+        return this;
+    }
+
+    public long getIdleEvictionMs() {
+        return idleEvictionMs;
+    }
+
+    /**
+     * @param idleEvictionMs how long a connection may be idle before it is closed by the eviction pass
+     */
+    @CheckReturnValue
+    public RestClientConfig setIdleEvictionMs(long idleEvictionMs) {
+        if (idleEvictionMs < 1) throw new IllegalArgumentException("Idle eviction must be at least 1ms");
+        this.idleEvictionMs = idleEvictionMs;
+        return this;
+    }
+
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    /**
+     * @param connectTimeoutMs how long to wait for a connection to be established, or 0 to wait forever
+     */
+    @CheckReturnValue
+    public RestClientConfig setConnectTimeoutMs(int connectTimeoutMs) {
+        if (connectTimeoutMs < 0) throw new IllegalArgumentException("Connect timeout must not be negative");
+        this.connectTimeoutMs = connectTimeoutMs;
+        return this;
+    }
+
+    public int getSocketTimeoutMs() {
+        return socketTimeoutMs;
+    }
+
+    /**
+     * @param socketTimeoutMs how long to wait for data from the node, or 0 to wait forever
+     */
+    @CheckReturnValue
+    public RestClientConfig setSocketTimeoutMs(int socketTimeoutMs) {
+        if (socketTimeoutMs < 0) throw new IllegalArgumentException("Socket timeout must not be negative");
+        this.socketTimeoutMs = socketTimeoutMs;
+        return this;
+    }
+
+    public int getConnectionRequestTimeoutMs() {
+        return connectionRequestTimeoutMs;
+    }
+
+    /**
+     * @param connectionRequestTimeoutMs how long a request may wait for a connection from the pool, or 0 to wait forever
+     */
+    @CheckReturnValue
+    public RestClientConfig setConnectionRequestTimeoutMs(int connectionRequestTimeoutMs) {
+        if (connectionRequestTimeoutMs < 0) throw new IllegalArgumentException("Connection request timeout must not be negative");
+        this.connectionRequestTimeoutMs = connectionRequestTimeoutMs;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "RestClientConfig{" +
+                "maxConnections=" + maxConnections +
+                ", keepAliveMs=" + keepAliveMs +
+                ", idleEvictionMs=" + idleEvictionMs +
+                ", connectTimeoutMs=" + connectTimeoutMs +
+                ", socketTimeoutMs=" + socketTimeoutMs +
+                ", connectionRequestTimeoutMs=" + connectionRequestTimeoutMs +
+                '}';
+    }
+}
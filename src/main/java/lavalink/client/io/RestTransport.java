@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Performs the HTTP requests of a {@link LavalinkRestClient}.
+ */
+interface RestTransport {
+
+    /**
+     * @param url         the url to request
+     * @param auth        the value of the authorization header
+     * @param executor    the executor to run the body handler and complete the returned future on
+     * @param bodyHandler reads the body of the response
+     * @return the result of the body handler
+     */
+    <T> CompletableFuture<T> get(String url, String auth, Executor executor, BodyHandler<T> bodyHandler);
+
+    /**
+     * @param url         the url to request
+     * @param auth        the value of the authorization header
+     * @param json        the JSON request body
+     * @param executor    the executor to run the body handler and complete the returned future on
+     * @param bodyHandler reads the body of the response
+     * @return the result of the body handler
+     */
+    <T> CompletableFuture<T> post(String url, String auth, String json, Executor executor, BodyHandler<T> bodyHandler);
+
+    PoolStats getPoolStats();
+
+    void close();
+
+    /**
+     * Hands the body of a successful response to the handler as a character stream, and releases the response
+     * afterwards. Bodies without a charset are read as UTF-8, which is what JSON requires.
+     */
+    static <T> T readBody(HttpResponse httpResponse, BodyHandler<T> bodyHandler) throws IOException {
+        final HttpEntity entity = httpResponse.getEntity();
+        try {
+            final int statusCode = httpResponse.getStatusLine().getStatusCode();
+            if (statusCode != 200) throw new IOException("Invalid API Request Status Code: " + statusCode);
+            if (entity == null) throw new IOException("Invalid API Response: No Content");
+
+            Charset charset = ContentType.getOrDefault(entity).getCharset();
+            if (charset == null) charset = StandardCharsets.UTF_8;
+            try (Reader reader = new InputStreamReader(entity.getContent(), charset)) {
+                return bodyHandler.handle(reader);
+            }
+        } finally {
+            EntityUtils.consumeQuietly(entity);
+        }
+    }
+
+    @FunctionalInterface
+    interface BodyHandler<T> {
+        T handle(Reader body) throws IOException;
+    }
+}
@@ -24,10 +24,12 @@ package lavalink.client.io;
 
 import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.drafts.Draft;
+import org.java_websocket.framing.Framedata;
 import org.java_websocket.handshake.ServerHandshake;
 
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.util.Collection;
 import java.util.Map;
 
 public abstract class ReusableWebSocket {
@@ -62,6 +64,22 @@ public abstract class ReusableWebSocket {
         }
     }
 
+    /**
+     * Sends several frames at once, which only synchronizes with the underlying socket once.
+     */
+    public void sendFrames(Collection<Framedata> frames) {
+        if (socket != null && socket.isOpen()) {
+            socket.sendFrame(frames);
+        }
+    }
+
+    /**
+     * @return true if frames have been sent, but not yet written to the network
+     */
+    public boolean hasBufferedData() {
+        return socket != null && socket.hasBufferedData();
+    }
+
     @SuppressWarnings("unused")
     public URI getServerUri() {
         return this.serverUri;
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.json.SocketMessageHandler;
+import lavalink.client.player.LavalinkPlayer;
+import lavalink.client.player.event.*;
+import lavalink.client.player.track.AudioTrackEndReason;
+import lavalink.client.player.track.DefaultAudioTrack;
+import org.json.JSONObject;
+
+/**
+ * Applies the messages received by a {@link LavalinkSocket} to the links and players they concern.
+ * Decoding is left to the {@link lavalink.client.io.json.LavalinkCodec codec} of the {@link Lavalink} instance.
+ * <p>
+ * Implementation details:
+ * The only events extending {@link lavalink.client.player.event.PlayerEvent} produced by the remote server are these:
+ * 1. TrackEndEvent
+ * 2. TrackExceptionEvent
+ * 3. TrackStuckEvent
+ * 4. WebSocketClosedEvent
+ */
+final class SocketMessageDispatcher implements SocketMessageHandler {
+
+    @NonNull
+    private final LavalinkSocket socket;
+    @NonNull
+    private final Lavalink<?> lavalink;
+
+    SocketMessageDispatcher(@NonNull LavalinkSocket socket, @NonNull Lavalink<?> lavalink) {
+        this.socket = socket;
+        this.lavalink = lavalink;
+    }
+
+    void dispatch(@NonNull String message) {
+        lavalink.getCodec().decodeMessage(message, this);
+    }
+
+    @Override
+    public void onPlayerUpdate(long guildId, long time, long position, boolean connected) {
+        lavalink.getLink(guildId)
+                .getPlayer()
+                .provideState(time, position, connected);
+    }
+
+    @Override
+    public void onStats(@NonNull JSONObject stats) {
+        socket.setStats(new RemoteStats(stats));
+    }
+
+    @Override
+    public void onTrackStart(long guildId, @NonNull String track) {
+        LavalinkPlayer player = lavalink.getLink(guildId).getPlayer();
+        player.emitEvent(new TrackStartEvent(player, new DefaultAudioTrack(track, player.getPlayingTrack())));
+    }
+
+    @Override
+    public void onTrackEnd(long guildId, @NonNull String track, @NonNull AudioTrackEndReason reason) {
+        LavalinkPlayer player = lavalink.getLink(guildId).getPlayer();
+        PlayerEvent event = new TrackEndEvent(player, new DefaultAudioTrack(track, player.getPlayingTrack()), reason);
+        if (reason != AudioTrackEndReason.REPLACED && reason != AudioTrackEndReason.STOPPED) {
+            player.clearTrack();
+        }
+        player.emitEvent(event);
+    }
+
+    @Override
+    public void onTrackException(long guildId, @NonNull String track, @NonNull Exception exception) {
+        LavalinkPlayer player = lavalink.getLink(guildId).getPlayer();
+        player.emitEvent(new TrackExceptionEvent(player, new DefaultAudioTrack(track, player.getPlayingTrack()), exception));
+    }
+
+    @Override
+    public void onTrackStuck(long guildId, @NonNull String track, long thresholdMs) {
+        LavalinkPlayer player = lavalink.getLink(guildId).getPlayer();
+        player.emitEvent(new TrackStuckEvent(player, new DefaultAudioTrack(track, player.getPlayingTrack()), thresholdMs));
+    }
+
+    @Override
+    public void onWebSocketClosed(long guildId, int code, @Nullable String reason, boolean byRemote) {
+        // Unlike the other events, this is handled by the Link instead of the LavalinkPlayer,
+        // as this event is more relevant to the implementation of Link.
+        lavalink.getLink(guildId).onVoiceWebSocketClosed(code, reason, byRemote);
+    }
+}
@@ -0,0 +1,41 @@
+package lavalink.client.io;
+
+import lavalink.client.player.track.AudioTrack;
+
+import java.util.List;
+
+/**
+ * Receives the tracks of a load while the response is still being received.
+ *
+ * @see LavalinkRestClient#loadItemStreaming(String, int, StreamingLoadResultHandler)
+ */
+public interface StreamingLoadResultHandler {
+	/**
+	 * Called with each chunk of tracks as soon as it has been decoded, in the order of the response. Every chunk but
+	 * the last holds the requested amount of tracks.
+	 *
+	 * @param tracks The decoded tracks
+	 */
+	void tracksLoaded(List<AudioTrack> tracks);
+
+	/**
+	 * Called once all tracks have been delivered, if the requested item was a track, a playlist or a search result.
+	 *
+	 * @param type          The type of the result
+	 * @param playlistName  The name of the playlist, or null if the result is not a playlist
+	 * @param selectedTrack The index of the selected track in the playlist, or -1 if none is selected
+	 */
+	void loadCompleted(TrackLoadResult.Type type, String playlistName, int selectedTrack);
+
+	/**
+	 * Called when there were no items found by the specified identifier.
+	 */
+	void noMatches();
+
+	/**
+	 * Called when loading an item failed with an exception. Tracks may have been delivered before the failure.
+	 *
+	 * @param exception The exception that was thrown
+	 */
+	void loadFailed(FriendlyException exception);
+}
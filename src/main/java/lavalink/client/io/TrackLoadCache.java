@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track load results around so that repeated loads of the same identifier don't reach a node.
+ * <p>
+ * Results are evicted once their TTL has passed, or in least recently used order once the cache holds more
+ * entries or tracks than configured. Every lookup returns a copy with its own track instances, as tracks carry
+ * mutable user data.
+ *
+ * @see TrackLoadCacheConfig
+ */
+@SuppressWarnings("unused")
+public class TrackLoadCache {
+
+    private static final String SEARCH_SUFFIX = "search:";
+
+    @NonNull
+    private final TrackLoadCacheConfig config;
+    /* Access ordered, so iteration starts at the least recently used entry */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    TrackLoadCache(@NonNull TrackLoadCacheConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Normalizes an identifier so that equivalent searches share an entry. Search queries are case insensitive and
+     * whitespace is collapsed, while other identifiers, such as urls, are only trimmed.
+     */
+    @NonNull
+    static String normalize(@NonNull String identifier) {
+        String trimmed = identifier.trim();
+        int colon = trimmed.indexOf(':');
+        if (colon < 0 || !trimmed.regionMatches(true, colon - SEARCH_SUFFIX.length() + 1, SEARCH_SUFFIX, 0, SEARCH_SUFFIX.length())) {
+            return trimmed;
+        }
+        return trimmed.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * @return a copy of the cached result, or null if there is none
+     */
+    @Nullable
+    TrackLoadResult get(@NonNull String identifier) {
+        String key = normalize(identifier);
+        TrackLoadResult result;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            result = entry.result;
+        }
+        hits.incrementAndGet();
+        return result.copy();
+    }
+
+    void put(@NonNull String identifier, @NonNull TrackLoadResult result) {
+        long ttlMs = isNegative(result) ? config.getNegativeTtlMs() : config.getTtlMs();
+        if (ttlMs <= 0) return;
+
+        // Keep our own tracks, the caller hands out the ones it has been given
+        Entry entry = new Entry(result.copy(), System.nanoTime() + ttlMs * 1_000_000);
+        String key = normalize(identifier);
+        synchronized (this) {
+            remove(key);
+            entries.put(key, entry);
+            weight += entry.weight;
+
+            Iterator<Entry> iterator = entries.values().iterator();
+            while ((entries.size() > config.getMaxEntries() || weight > config.getMaxWeight()) && iterator.hasNext()) {
+                Entry eldest = iterator.next();
+                iterator.remove();
+                weight -= eldest.weight;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) weight -= previous.weight;
+    }
+
+    private static boolean isNegative(TrackLoadResult result) {
+        return result.getType() == TrackLoadResult.Type.NO_MATCHES
+                || result.getType() == TrackLoadResult.Type.LOAD_FAILED;
+    }
+
+    @NonNull
+    public TrackLoadCacheConfig getConfig() {
+        return config;
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @return the amount of tracks held across all entries, where entries without tracks weigh 1
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the amount of entries evicted to stay within the configured limits
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the amount of entries removed because their TTL had passed
+     */
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    private static class Entry {
+        private final TrackLoadResult result;
+        private final long expiresAt;
+        private final int weight;
+
+        private Entry(TrackLoadResult result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+            this.weight = Math.max(1, result.getTracks().size());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import javax.annotation.CheckReturnValue;
+
+/**
+ * Configures the optional cache of track load results.
+ *
+ * @see Lavalink#setTrackLoadCacheConfig(TrackLoadCacheConfig)
+ * @see TrackLoadCache
+ */
+@SuppressWarnings("unused")
+public class TrackLoadCacheConfig {
+
+    private long ttlMs = 10 * 60 * 1000;
+    private long negativeTtlMs = 30 * 1000;
+    private int maxEntries = 1000;
+    private long maxWeight = 50000;
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    /**
+     * @param ttlMs how long results with tracks are kept
+     */
+    @CheckReturnValue
+    public TrackLoadCacheConfig setTtlMs(long ttlMs) {
+        if (ttlMs < 0) throw new IllegalArgumentException("TTL must not be negative");
+        this.ttlMs = ttlMs;
+        return this;
+    }
+
+    public long getNegativeTtlMs() {
+        return negativeTtlMs;
+    }
+
+    /**
+     * @param negativeTtlMs how long {@link TrackLoadResult.Type#NO_MATCHES} and {@link TrackLoadResult.Type#LOAD_FAILED}
+     *                      results are kept, or 0 to not cache them
+     */
+    @CheckReturnValue
+    public TrackLoadCacheConfig setNegativeTtlMs(long negativeTtlMs) {
+        if (negativeTtlMs < 0) throw new IllegalArgumentException("Negative TTL must not be negative");
+        this.negativeTtlMs = negativeTtlMs;
+        return this;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @param maxEntries the amount of results kept before the least recently used ones are evicted
+     */
+    @CheckReturnValue
+    public TrackLoadCacheConfig setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("Max entries must be at least 1");
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @param maxWeight the amount of tracks kept across all results before the least recently used ones are evicted.
+     *                  Results without tracks weigh 1.
+     */
+    @CheckReturnValue
+    public TrackLoadCacheConfig setMaxWeight(long maxWeight) {
+        if (maxWeight < 1) throw new IllegalArgumentException("Max weight must be at least 1");
+        this.maxWeight = maxWeight;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "TrackLoadCacheConfig{" +
+                "ttlMs=" + ttlMs +
+                ", negativeTtlMs=" + negativeTtlMs +
+                ", maxEntries=" + maxEntries +
+                ", maxWeight=" + maxWeight +
+                '}';
+    }
+}
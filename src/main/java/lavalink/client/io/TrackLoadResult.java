@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.player.track.AudioTrack;
+import lavalink.client.player.track.DefaultAudioTrack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The decoded response of Lavalink's Track Loading API.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class TrackLoadResult {
+
+    @NonNull
+    private final Type type;
+    @NonNull
+    private final List<AudioTrack> tracks;
+    @Nullable
+    private final String playlistName;
+    private final int selectedTrack;
+    @Nullable
+    private final FriendlyException exception;
+
+    public TrackLoadResult(@NonNull Type type,
+                           @NonNull List<AudioTrack> tracks,
+                           @Nullable String playlistName,
+                           int selectedTrack,
+                           @Nullable FriendlyException exception) {
+        this.type = type;
+        this.tracks = tracks;
+        this.playlistName = playlistName;
+        this.selectedTrack = selectedTrack;
+        this.exception = exception;
+    }
+
+    /**
+     * @return a result for a response that could not be handled
+     */
+    @NonNull
+    public static TrackLoadResult failed(@NonNull FriendlyException exception) {
+        return new TrackLoadResult(Type.LOAD_FAILED, Collections.emptyList(), null, -1, exception);
+    }
+
+    /**
+     * @return a result with the same content, but with its own track instances, so that user data set on the tracks
+     * of one result does not show up on the other
+     */
+    @NonNull
+    public TrackLoadResult copy() {
+        List<AudioTrack> copies = new ArrayList<>(tracks.size());
+        for (AudioTrack track : tracks) {
+            copies.add(new DefaultAudioTrack(track.getTrack(), track.getInfo()));
+        }
+        return new TrackLoadResult(type, copies, playlistName, selectedTrack, exception);
+    }
+
+    @NonNull
+    public Type getType() {
+        return type;
+    }
+
+    @NonNull
+    public List<AudioTrack> getTracks() {
+        return tracks;
+    }
+
+    /**
+     * @return the name of the playlist, or null if this is not a {@link Type#PLAYLIST_LOADED} result
+     */
+    @Nullable
+    public String getPlaylistName() {
+        return playlistName;
+    }
+
+    /**
+     * @return the index of the selected track in the playlist, or -1 if none is selected
+     */
+    public int getSelectedTrack() {
+        return selectedTrack;
+    }
+
+    /**
+     * @return the reason of failure, or null if this is not a {@link Type#LOAD_FAILED} result
+     */
+    @Nullable
+    public FriendlyException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return "TrackLoadResult{" +
+                "type=" + type +
+                ", tracks=" + tracks.size() +
+                ", playlistName=" + playlistName +
+                ", selectedTrack=" + selectedTrack +
+                '}';
+    }
+
+    public enum Type {
+        TRACK_LOADED,
+        PLAYLIST_LOADED,
+        SEARCH_RESULT,
+        NO_MATCHES,
+        LOAD_FAILED
+    }
+}
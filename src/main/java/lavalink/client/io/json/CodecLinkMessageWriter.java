@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.filters.Filters;
+import org.json.JSONObject;
+
+/**
+ * A {@link LinkMessageWriter} which simply forwards to the guild-id based methods of a codec.
+ */
+final class CodecLinkMessageWriter implements LinkMessageWriter {
+
+    private final LavalinkCodec codec;
+    private final long guildId;
+
+    CodecLinkMessageWriter(LavalinkCodec codec, long guildId) {
+        this.codec = codec;
+        this.guildId = guildId;
+    }
+
+    @NonNull
+    @Override
+    public String play(@NonNull String track, long startTime, long endTime, boolean paused, int volume) {
+        return codec.encodePlay(guildId, track, startTime, endTime, paused, volume);
+    }
+
+    @NonNull
+    @Override
+    public String stop() {
+        return codec.encodeStop(guildId);
+    }
+
+    @NonNull
+    @Override
+    public String pause(boolean paused) {
+        return codec.encodePause(guildId, paused);
+    }
+
+    @NonNull
+    @Override
+    public String seek(long position) {
+        return codec.encodeSeek(guildId, position);
+    }
+
+    @NonNull
+    @Override
+    public String volume(int volume) {
+        return codec.encodeVolume(guildId, volume);
+    }
+
+    @NonNull
+    @Override
+    public String filters(@NonNull Filters filters) {
+        return codec.encodeFilters(guildId, filters);
+    }
+
+    @NonNull
+    @Override
+    public String destroy() {
+        return codec.encodeDestroy(guildId);
+    }
+
+    @NonNull
+    @Override
+    public String voiceUpdate(@Nullable String sessionId, @NonNull JSONObject event) {
+        return codec.encodeVoiceUpdate(guildId, sessionId, event);
+    }
+}
@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.FriendlyException;
+import lavalink.client.io.RemoteTrackException;
+import lavalink.client.io.TrackLoadResult;
+import lavalink.client.io.filters.*;
+import lavalink.client.player.track.AudioTrack;
+import lavalink.client.player.track.AudioTrackEndReason;
+import lavalink.client.player.track.AudioTrackInfo;
+import lavalink.client.player.track.DefaultAudioTrack;
+import lavalink.client.player.track.DefaultAudioTrackInfo;
+import lavalink.client.player.track.TrackStringPool;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The default codec. Messages are written with a {@link JsonWriter} and read with a {@link JsonReader},
+ * so no intermediate {@link JSONObject} or map is built on any hot path.
+ * <p>
+ * Incoming messages are scanned once, remembering where the top level values start. Only the op is decoded
+ * before dispatching, after which exactly the fields needed for that op are decoded.
+ */
+public class DefaultLavalinkCodec implements LavalinkCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(DefaultLavalinkCodec.class);
+
+    private static final String[] FIELDS = {
+            "op", "guildId", "state", "type", "track", "reason", "exception", "error", "thresholdMs", "code", "byRemote"
+    };
+    private static final int OP = 0;
+    private static final int GUILD_ID = 1;
+    private static final int STATE = 2;
+    private static final int TYPE = 3;
+    private static final int TRACK = 4;
+    private static final int REASON = 5;
+    private static final int EXCEPTION = 6;
+    private static final int ERROR = 7;
+    private static final int THRESHOLD_MS = 8;
+    private static final int CODE = 9;
+    private static final int BY_REMOTE = 10;
+
+    private static final String[] OPS = {"playerUpdate", "stats", "event"};
+    private static final int OP_PLAYER_UPDATE = 0;
+    private static final int OP_STATS = 1;
+    private static final int OP_EVENT = 2;
+
+    private static final String[] STATE_FIELDS = {"time", "position", "connected"};
+    private static final String[] EXCEPTION_FIELDS = {"message", "severity", "cause"};
+
+    private static final String[] EVENT_TYPES = {
+            "TrackStartEvent", "TrackEndEvent", "TrackExceptionEvent", "TrackStuckEvent", "WebSocketClosedEvent"
+    };
+    private static final int TRACK_START = 0;
+    private static final int TRACK_END = 1;
+    private static final int TRACK_EXCEPTION = 2;
+    private static final int TRACK_STUCK = 3;
+    private static final int WEBSOCKET_CLOSED = 4;
+
+    private static final String[] LOAD_RESULT_FIELDS = {"loadType", "playlistInfo", "tracks", "exception"};
+    private static final int LOAD_TYPE = 0;
+    private static final int PLAYLIST_INFO = 1;
+    private static final int TRACKS = 2;
+    private static final int LOAD_EXCEPTION = 3;
+    private static final String[] PLAYLIST_INFO_FIELDS = {"name", "selectedTrack"};
+    private static final String[] TRACK_FIELDS = {"track", "info"};
+    private static final String[] TRACK_INFO_FIELDS = {
+            "title", "author", "length", "identifier", "isStream", "uri", "sourceName"
+    };
+
+    /* Offsets of the top level values of the message being decoded */
+    private final ThreadLocal<int[]> offsetTables = ThreadLocal.withInitial(() -> new int[FIELDS.length]);
+    /* Reused, so that their buffer is too */
+    private final ThreadLocal<JsonReader> readers = ThreadLocal.withInitial(() -> new JsonReader(""));
+
+    @NonNull
+    @Override
+    public String encodePlay(long guildId, @NonNull String track, long startTime, long endTime, boolean paused, int volume) {
+        JsonWriter writer = begin("play", guildId)
+                .name("track").value(track)
+                .name("startTime").value(startTime);
+        if (endTime != 0) {
+            writer.name("endTime").value(endTime);
+        }
+        return writer.name("pause").value(paused)
+                .name("volume").value(volume)
+                .endObject()
+                .toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeStop(long guildId) {
+        return begin("stop", guildId).endObject().toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodePause(long guildId, boolean paused) {
+        return begin("pause", guildId).name("pause").value(paused).endObject().toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeSeek(long guildId, long position) {
+        return begin("seek", guildId).name("position").value(position).endObject().toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeVolume(long guildId, int volume) {
+        return begin("volume", guildId).name("volume").value(volume).endObject().toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeFilters(long guildId, @NonNull Filters filters) {
+        JsonWriter writer = begin("filters", guildId);
+
+        // Volume
+        writer.name("volume").value(filters.getVolume());
+
+        // Equalizer
+        float[] bands = filters.getBands();
+        boolean hasBands = false;
+        for (int i = 0; i < bands.length; i++) {
+            if (bands[i] == 0.0f) continue;
+            if (!hasBands) {
+                writer.name("equalizer").beginArray();
+                hasBands = true;
+            }
+            writer.beginObject()
+                    .name("band").value(i)
+                    .name("gain").value(bands[i])
+                    .endObject();
+        }
+        if (hasBands) writer.endArray();
+
+        Timescale timescale = filters.getTimescale();
+        if (timescale != null) {
+            writer.name("timescale").beginObject()
+                    .name("speed").value(timescale.getSpeed())
+                    .name("pitch").value(timescale.getPitch())
+                    .name("rate").value(timescale.getRate())
+                    .endObject();
+        }
+
+        Karaoke karaoke = filters.getKaraoke();
+        if (karaoke != null) {
+            writer.name("karaoke").beginObject()
+                    .name("level").value(karaoke.getLevel())
+                    .name("monoLevel").value(karaoke.getMonoLevel())
+                    .name("filterBand").value(karaoke.getFilterBand())
+                    .name("filterWidth").value(karaoke.getFilterWidth())
+                    .endObject();
+        }
+
+        Tremolo tremolo = filters.getTremolo();
+        if (tremolo != null) {
+            writer.name("tremolo").beginObject()
+                    .name("frequency").value(tremolo.getFrequency())
+                    .name("depth").value(tremolo.getDepth())
+                    .endObject();
+        }
+
+        Vibrato vibrato = filters.getVibrato();
+        if (vibrato != null) {
+            writer.name("vibrato").beginObject()
+                    .name("frequency").value(vibrato.getFrequency())
+                    .name("depth").value(vibrato.getDepth())
+                    .endObject();
+        }
+
+        Rotation rotation = filters.getRotation();
+        if (rotation != null) {
+            writer.name("rotation").beginObject()
+                    .name("rotationHz").value(rotation.getFrequency())
+                    .endObject();
+        }
+
+        Distortion distortion = filters.getDistortion();
+        if (distortion != null) {
+            writer.name("distortion").beginObject()
+                    .name("sinOffset").value(distortion.getSinOffset())
+                    .name("sinScale").value(distortion.getSinScale())
+                    .name("cosOffset").value(distortion.getCosOffset())
+                    .name("cosScale").value(distortion.getCosScale())
+                    .name("tanOffset").value(distortion.getTanOffset())
+                    .name("tanScale").value(distortion.getTanScale())
+                    .name("offset").value(distortion.getOffset())
+                    .name("scale").value(distortion.getScale())
+                    .endObject();
+        }
+
+        ChannelMix channelMix = filters.getChannelMix();
+        if (channelMix != null) {
+            writer.name("channelMix").beginObject()
+                    .name("leftToLeft").value(channelMix.getLeftToLeft())
+                    .name("leftToRight").value(channelMix.getLeftToRight())
+                    .name("rightToLeft").value(channelMix.getRightToLeft())
+                    .name("rightToRight").value(channelMix.getRightToRight())
+                    .endObject();
+        }
+
+        LowPass lowPass = filters.getLowPass();
+        if (lowPass != null) {
+            writer.name("lowPass").beginObject()
+                    .name("smoothing").value(lowPass.getSmoothing())
+                    .endObject();
+        }
+
+        return writer.endObject().toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeDestroy(long guildId) {
+        return begin("destroy", guildId).endObject().toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeVoiceUpdate(long guildId, @Nullable String sessionId, @NonNull JSONObject event) {
+        JsonWriter writer = begin("voiceUpdate", guildId);
+        if (sessionId != null) writer.name("sessionId").value(sessionId);
+        return writer.name("event").rawValue(event.toString())
+                .endObject()
+                .toString();
+    }
+
+    @NonNull
+    @Override
+    public LinkMessageWriter newLinkWriter(long guildId) {
+        return new TemplateLinkMessageWriter(this, guildId);
+    }
+
+    private static JsonWriter begin(String op, long guildId) {
+        return new JsonWriter()
+                .beginObject()
+                .name("op").plainValue(op)
+                .name("guildId").plainValue(Long.toString(guildId));
+    }
+
+    @Override
+    public void decodeMessage(@NonNull String message, @NonNull SocketMessageHandler handler) {
+        JsonReader reader = readers.get();
+        reader.reset(message);
+        int[] offsets = offsetTables.get();
+        scan(reader, FIELDS, offsets);
+
+        int op = at(reader, offsets, OP).nextString(OPS);
+        if (op != OP_PLAYER_UPDATE) {
+            log.debug(message);
+        }
+
+        switch (op) {
+            case OP_PLAYER_UPDATE:
+                decodePlayerUpdate(reader, offsets, handler);
+                break;
+            case OP_STATS:
+                handler.onStats(new JSONObject(message));
+                break;
+            case OP_EVENT:
+                decodeEvent(reader, offsets, handler);
+                break;
+            default:
+                log.warn("Unexpected operation: " + at(reader, offsets, OP).nextString());
+                break;
+        }
+    }
+
+    private static void decodePlayerUpdate(JsonReader reader, int[] offsets, SocketMessageHandler handler) {
+        long guildId = at(reader, offsets, GUILD_ID).nextLong();
+        long time = 0;
+        long position = 0;
+        boolean connected = true;
+        boolean hasTime = false;
+
+        at(reader, offsets, STATE).beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(STATE_FIELDS)) {
+                case 0:
+                    time = reader.nextLong();
+                    hasTime = true;
+                    break;
+                case 1:
+                    if (reader.peekNull()) reader.skipValue();
+                    else position = reader.nextLong();
+                    break;
+                case 2:
+                    if (reader.peekNull()) reader.skipValue();
+                    else connected = reader.nextBoolean();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        if (!hasTime) throw new IllegalStateException("Missing field 'time' in playerUpdate state");
+
+        handler.onPlayerUpdate(guildId, time, position, connected);
+    }
+
+    private static void decodeEvent(JsonReader reader, int[] offsets, SocketMessageHandler handler) {
+        long guildId = at(reader, offsets, GUILD_ID).nextLong();
+
+        switch (at(reader, offsets, TYPE).nextString(EVENT_TYPES)) {
+            case TRACK_START:
+                handler.onTrackStart(guildId, readTrack(reader, offsets));
+                break;
+            case TRACK_END:
+                AudioTrackEndReason endReason = AudioTrackEndReason.valueOf(requireString(at(reader, offsets, REASON), "reason"));
+                handler.onTrackEnd(guildId, readTrack(reader, offsets), endReason);
+                break;
+            case TRACK_EXCEPTION:
+                Exception ex;
+                if (offsets[EXCEPTION] != -1) {
+                    ex = readFriendlyException(at(reader, offsets, EXCEPTION), true);
+                } else {
+                    ex = new RemoteTrackException(at(reader, offsets, ERROR).nextString());
+                }
+
+                handler.onTrackException(guildId, readTrack(reader, offsets), ex);
+                break;
+            case TRACK_STUCK:
+                handler.onTrackStuck(guildId, readTrack(reader, offsets), at(reader, offsets, THRESHOLD_MS).nextLong());
+                break;
+            case WEBSOCKET_CLOSED:
+                handler.onWebSocketClosed(
+                        guildId,
+                        at(reader, offsets, CODE).nextInt(),
+                        at(reader, offsets, REASON).nextString(),
+                        at(reader, offsets, BY_REMOTE).nextBoolean()
+                );
+                break;
+            default:
+                log.warn("Unexpected event type: " + at(reader, offsets, TYPE).nextString());
+                break;
+        }
+    }
+
+    private static String readTrack(JsonReader reader, int[] offsets) {
+        return requireString(at(reader, offsets, TRACK), "track");
+    }
+
+    /**
+     * @param remoteCause whether to wrap the cause reported by the node, as opposed to an empty cause
+     */
+    private static FriendlyException readFriendlyException(JsonReader reader, boolean remoteCause) {
+        String message = null;
+        String severity = null;
+        String cause = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(EXCEPTION_FIELDS)) {
+                case 0:
+                    message = reader.nextString();
+                    break;
+                case 1:
+                    severity = reader.nextString();
+                    break;
+                case 2:
+                    cause = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        if (severity == null) throw new IllegalStateException("Missing field 'severity' in exception");
+
+        return new FriendlyException(message, FriendlyException.Severity.valueOf(severity),
+                remoteCause ? new RuntimeException(cause) : new Throwable());
+    }
+
+    @NonNull
+    @Override
+    public TrackLoadResult decodeLoadResult(@NonNull String body) {
+        List<AudioTrack> tracks = new ArrayList<>();
+        return decodeLoadResult(new JsonReader(body), tracks, tracks::add);
+    }
+
+    @NonNull
+    @Override
+    public TrackLoadResult decodeLoadResult(@NonNull Reader body) {
+        List<AudioTrack> tracks = new ArrayList<>();
+        return decodeLoadResult(new JsonReader(body), tracks, tracks::add);
+    }
+
+    @NonNull
+    @Override
+    public TrackLoadResult decodeLoadResult(@NonNull Reader body, int chunkSize,
+                                            @NonNull Consumer<List<AudioTrack>> chunkConsumer) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+
+        List<AudioTrack> chunk = new ArrayList<>(chunkSize);
+        TrackLoadResult result = decodeLoadResult(new JsonReader(body), Collections.emptyList(), track -> {
+            chunk.add(track);
+            if (chunk.size() == chunkSize) {
+                chunkConsumer.accept(new ArrayList<>(chunk));
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) chunkConsumer.accept(chunk);
+        return result;
+    }
+
+    /**
+     * Reads a load result in a single pass, so that it can be streamed. Fields may come in any order.
+     *
+     * @param tracks    the tracks of the returned result, which the sink is expected to fill
+     * @param trackSink receives each track as soon as it has been decoded
+     */
+    private static TrackLoadResult decodeLoadResult(JsonReader reader, List<AudioTrack> tracks,
+                                                    Consumer<AudioTrack> trackSink) {
+        String loadType = null;
+        String name = null;
+        int selectedTrack = -1;
+        FriendlyException exception = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(LOAD_RESULT_FIELDS)) {
+                case LOAD_TYPE:
+                    loadType = requireString(reader, "loadType");
+                    break;
+                case PLAYLIST_INFO:
+                    if (reader.peekNull()) {
+                        reader.skipValue();
+                        break;
+                    }
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName(PLAYLIST_INFO_FIELDS)) {
+                            case 0:
+                                name = reader.nextString();
+                                break;
+                            case 1:
+                                if (reader.peekNull()) reader.skipValue();
+                                else selectedTrack = reader.nextInt();
+                                break;
+                            default:
+                                reader.skipValue();
+                                break;
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case TRACKS:
+                    readTracks(reader, trackSink);
+                    break;
+                case LOAD_EXCEPTION:
+                    if (reader.peekNull()) reader.skipValue();
+                    else exception = readFriendlyException(reader, false);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (loadType == null) throw new IllegalStateException("Missing field 'loadType'");
+        switch (loadType) {
+            case "TRACK_LOADED":
+            case "SEARCH_RESULT":
+                return new TrackLoadResult(TrackLoadResult.Type.valueOf(loadType), tracks, null, -1, null);
+            case "PLAYLIST_LOADED":
+                if (name == null) throw new IllegalStateException("Missing field 'name' in playlistInfo");
+                return new TrackLoadResult(TrackLoadResult.Type.PLAYLIST_LOADED, tracks, name, selectedTrack, null);
+            case "NO_MATCHES":
+                return new TrackLoadResult(TrackLoadResult.Type.NO_MATCHES, Collections.emptyList(), null, -1, null);
+            case "LOAD_FAILED":
+                if (exception == null) throw new IllegalStateException("Missing field 'exception'");
+                return TrackLoadResult.failed(exception);
+            default:
+                throw new IllegalArgumentException("Invalid loadType: " + loadType);
+        }
+    }
+
+    @NonNull
+    @Override
+    public String encodeTrackList(@NonNull List<String> tracks) {
+        JsonWriter writer = new JsonWriter().beginArray();
+        for (String track : tracks) {
+            writer.value(track);
+        }
+        return writer.endArray().toString();
+    }
+
+    @NonNull
+    @Override
+    public List<AudioTrack> decodeTrackList(@NonNull Reader body) {
+        List<AudioTrack> tracks = new ArrayList<>();
+        readTracks(new JsonReader(body), tracks::add);
+        return tracks;
+    }
+
+    private static void readTracks(JsonReader reader, Consumer<AudioTrack> trackSink) {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String track = null;
+            AudioTrackInfo info = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName(TRACK_FIELDS)) {
+                    case 0:
+                        track = reader.nextString();
+                        break;
+                    case 1:
+                        info = readTrackInfo(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+
+            if (track == null) throw new IllegalStateException("Missing field 'track'");
+            if (info == null) throw new IllegalStateException("Missing field 'info'");
+            trackSink.accept(new DefaultAudioTrack(track, info));
+        }
+        reader.endArray();
+    }
+
+    private static AudioTrackInfo readTrackInfo(JsonReader reader) {
+        String title = null;
+        String author = null;
+        long length = 0;
+        String identifier = null;
+        boolean isStream = false;
+        String uri = null;
+        String sourceName = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName(TRACK_INFO_FIELDS)) {
+                case 0:
+                    title = reader.nextString();
+                    break;
+                case 1:
+                    author = reader.nextString();
+                    break;
+                case 2:
+                    length = reader.nextLong();
+                    break;
+                case 3:
+                    identifier = reader.nextString();
+                    break;
+                case 4:
+                    isStream = reader.nextBoolean();
+                    break;
+                case 5:
+                    uri = reader.nextString();
+                    break;
+                case 6:
+                    sourceName = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        return new DefaultAudioTrackInfo(title, TrackStringPool.internShared(author), length, identifier, isStream,
+                uri, TrackStringPool.internShared(sourceName));
+    }
+
+    /**
+     * Records where the values of the given top level fields start, or -1 for absent fields.
+     */
+    private static void scan(JsonReader reader, String[] fields, int[] offsets) {
+        Arrays.fill(offsets, -1);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int field = reader.nextName(fields);
+            if (field != -1) offsets[field] = reader.position();
+            reader.skipValue();
+        }
+    }
+
+    private static JsonReader at(JsonReader reader, int[] offsets, int field) {
+        return at(reader, offsets, FIELDS, field);
+    }
+
+    /**
+     * Positions the reader at the value of a top level field.
+     *
+     * @throws IllegalStateException if the message did not contain the field
+     */
+    private static JsonReader at(JsonReader reader, int[] offsets, String[] fields, int field) {
+        int offset = offsets[field];
+        if (offset == -1) throw new IllegalStateException("Missing field '" + fields[field] + "'");
+        reader.seek(offset);
+        return reader;
+    }
+
+    private static String requireString(JsonReader reader, String name) {
+        String value = reader.nextString();
+        if (value == null) throw new IllegalStateException("Field '" + name + "' is null");
+        return value;
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A minimal pull parser for JSON text.
+ * <p>
+ * Unlike {@link org.json.JSONObject} this never builds a tree. Values are read in document order, and
+ * anything the caller is not interested in can be skipped with {@link #skipValue()} without decoding it.
+ * Names and enumerated string values can be matched against a set of candidates in place, which avoids
+ * allocating a {@link String} for them at all.
+ * <p>
+ * Documents can be read from a {@link String}, or streamed from a {@link Reader}, in which case only a small window
+ * of the document is held in memory at once. Only documents read from a string can be navigated with
+ * {@link #seek(int)}.
+ * <p>
+ * The reader is lenient about separators: commas are treated as whitespace between values.
+ * Instances are not thread safe, but may be reused with {@link #reset(String)}.
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class JsonReader {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private char[] buf = new char[0];
+    private int pos;
+    private int limit;
+    @Nullable
+    private Reader reader;
+    /* Characters dropped from the start of the buffer while streaming */
+    private long discarded;
+    /* Start of a value that must stay in the buffer while it is being read, or -1 */
+    private int mark = -1;
+
+    public JsonReader(@NonNull String json) {
+        reset(json);
+    }
+
+    /**
+     * @param reader the document to stream, which is not closed by this reader
+     */
+    public JsonReader(@NonNull Reader reader) {
+        this.buf = new char[STREAM_BUFFER_SIZE];
+        this.reader = reader;
+    }
+
+    /**
+     * Points this reader at a new document.
+     */
+    public void reset(@NonNull String json) {
+        if (buf.length < json.length()) buf = new char[json.length()];
+        json.getChars(0, json.length(), buf, 0);
+        this.pos = 0;
+        this.limit = json.length();
+        this.reader = null;
+        this.discarded = 0;
+        this.mark = -1;
+    }
+
+    /**
+     * @return the offset of the next character to be read
+     */
+    public int position() {
+        if (reader != null) throw new IllegalStateException("Streamed documents can't be navigated");
+        return pos;
+    }
+
+    /**
+     * Moves this reader to an offset previously obtained from {@link #position()}.
+     */
+    public void seek(int position) {
+        if (reader != null) throw new IllegalStateException("Streamed documents can't be navigated");
+        this.pos = position;
+    }
+
+    public void beginObject() {
+        expect('{');
+    }
+
+    public void endObject() {
+        expect('}');
+    }
+
+    public void beginArray() {
+        expect('[');
+    }
+
+    public void endArray() {
+        expect(']');
+    }
+
+    /**
+     * @return true if the current object or array has another element
+     */
+    public boolean hasNext() {
+        skipSeparators();
+        if (!more()) throw error("Unexpected end of input");
+        char c = buf[pos];
+        return c != '}' && c != ']';
+    }
+
+    /**
+     * @return true if the next value is a JSON null
+     */
+    public boolean peekNull() {
+        skipWhitespace();
+        return startsWith("null");
+    }
+
+    /**
+     * @return true if the next value is a JSON object
+     */
+    public boolean peekObject() {
+        skipWhitespace();
+        return more() && buf[pos] == '{';
+    }
+
+    @NonNull
+    public String nextName() {
+        skipSeparators();
+        String name = nextString();
+        if (name == null) throw error("Expected a name");
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Reads the next name and matches it against the given candidates without allocating.
+     *
+     * @return the index of the matching candidate, or -1 if none matched
+     */
+    public int nextName(@NonNull String[] names) {
+        skipSeparators();
+        int index = nextString(names);
+        expect(':');
+        return index;
+    }
+
+    /**
+     * @return the next string, or null if the next value is a JSON null
+     */
+    @Nullable
+    public String nextString() {
+        skipWhitespace();
+        if (peekNull()) {
+            pos += 4;
+            return null;
+        }
+        expect('"');
+        mark = pos;
+        int end = scanString();
+        int start = mark;
+        mark = -1;
+        if (end >= 0) return new String(buf, start, end - start);
+
+        pos = start;
+        return readEscapedString();
+    }
+
+    /**
+     * Reads the next string and matches it against the given candidates without allocating.
+     *
+     * @return the index of the matching candidate, or -1 if none matched or the value was null
+     */
+    public int nextString(@NonNull String[] candidates) {
+        skipWhitespace();
+        if (peekNull()) {
+            pos += 4;
+            return -1;
+        }
+        expect('"');
+        mark = pos;
+        int end = scanString();
+        int start = mark;
+        mark = -1;
+        if (end < 0) {
+            pos = start;
+            String value = readEscapedString();
+            for (int i = 0; i < candidates.length; i++) {
+                if (candidates[i].equals(value)) return i;
+            }
+            return -1;
+        }
+
+        int length = end - start;
+        for (int i = 0; i < candidates.length; i++) {
+            if (regionMatches(start, length, candidates[i])) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the next number. Numbers encoded as strings, such as snowflakes, are accepted as well.
+     */
+    public long nextLong() {
+        skipWhitespace();
+        boolean quoted = more() && buf[pos] == '"';
+        if (quoted) pos++;
+
+        mark = pos;
+        boolean negative = false;
+        if (more() && buf[pos] == '-') {
+            negative = true;
+            pos++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        while (more()) {
+            char c = buf[pos];
+            if (c < '0' || c > '9') break;
+            value = value * 10 + (c - '0');
+            digits++;
+            pos++;
+        }
+
+        if (more() && isFractionOrExponent(buf[pos])) {
+            // Rare, not worth a hand-written parser
+            pos = mark;
+            mark = -1;
+            return (long) readDouble(quoted);
+        }
+        mark = -1;
+
+        if (digits == 0) throw error("Expected a number");
+        if (quoted) expect('"');
+        return negative ? -value : value;
+    }
+
+    public int nextInt() {
+        return (int) nextLong();
+    }
+
+    public double nextDouble() {
+        skipWhitespace();
+        boolean quoted = more() && buf[pos] == '"';
+        if (quoted) pos++;
+        return readDouble(quoted);
+    }
+
+    public boolean nextBoolean() {
+        skipWhitespace();
+        if (startsWith("true")) {
+            pos += 4;
+            return true;
+        } else if (startsWith("false")) {
+            pos += 5;
+            return false;
+        }
+        throw error("Expected a boolean");
+    }
+
+    /**
+     * Skips the next value, including any nested objects or arrays.
+     */
+    public void skipValue() {
+        skipWhitespace();
+        if (!more()) throw error("Unexpected end of input");
+
+        char c = buf[pos];
+        if (c == '"') {
+            pos++;
+            skipString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                if (!more()) throw error("Unexpected end of input");
+                c = buf[pos++];
+                if (c == '"') {
+                    skipString();
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            while (more()) {
+                c = buf[pos];
+                if (c == ',' || c == '}' || c == ']' || isWhitespace(c)) break;
+                pos++;
+            }
+        }
+    }
+
+    private double readDouble(boolean quoted) {
+        mark = pos;
+        while (more()) {
+            char c = buf[pos];
+            if (!(c >= '0' && c <= '9') && c != '-' && c != '+' && !isFractionOrExponent(c)) break;
+            pos++;
+        }
+        int start = mark;
+        mark = -1;
+        if (start == pos) throw error("Expected a number");
+        double value = Double.parseDouble(new String(buf, start, pos - start));
+        if (quoted) expect('"');
+        return value;
+    }
+
+    /**
+     * Scans to the end of a string that starts at the current position.
+     *
+     * @return the offset of the closing quote, or -1 if the string contains escapes
+     */
+    private int scanString() {
+        while (more()) {
+            char c = buf[pos];
+            if (c == '"') return pos++;
+            if (c == '\\') return -1;
+            pos++;
+        }
+        throw error("Unterminated string");
+    }
+
+    private void skipString() {
+        while (more()) {
+            char c = buf[pos++];
+            if (c == '"') return;
+            if (c == '\\') {
+                if (!more()) break;
+                pos++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private String readEscapedString() {
+        StringBuilder sb = new StringBuilder();
+        while (more()) {
+            char c = buf[pos++];
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+
+            if (!more()) break;
+            c = buf[pos++];
+            switch (c) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (!require(4)) throw error("Malformed unicode escape");
+                    sb.append((char) Integer.parseInt(new String(buf, pos, 4), 16));
+                    pos += 4;
+                    break;
+                default:
+                    // Covers \" \\ and \/
+                    sb.append(c);
+                    break;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private void expect(char expected) {
+        skipWhitespace();
+        if (!more() || buf[pos] != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (more() && isWhitespace(buf[pos])) pos++;
+    }
+
+    private void skipSeparators() {
+        while (more()) {
+            char c = buf[pos];
+            if (c != ',' && !isWhitespace(c)) return;
+            pos++;
+        }
+    }
+
+    private boolean startsWith(String text) {
+        return require(text.length()) && regionMatches(pos, text.length(), text);
+    }
+
+    private boolean regionMatches(int start, int length, String text) {
+        if (text.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (buf[start + i] != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if there is at least one character left to read
+     */
+    private boolean more() {
+        return pos < limit || fill(1);
+    }
+
+    /**
+     * @return true if there are at least the given amount of characters left to read
+     */
+    private boolean require(int count) {
+        return pos + count <= limit || fill(count);
+    }
+
+    /**
+     * Reads more of a streamed document into the buffer, keeping everything from the mark or the current position.
+     *
+     * @return true if at least the given amount of characters can now be read
+     */
+    private boolean fill(int count) {
+        if (reader == null) return false;
+
+        int keep = mark >= 0 ? mark : pos;
+        if (keep > 0) {
+            System.arraycopy(buf, keep, buf, 0, limit - keep);
+            limit -= keep;
+            pos -= keep;
+            if (mark >= 0) mark -= keep;
+            discarded += keep;
+        }
+
+        try {
+            while (pos + count > limit) {
+                if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+                int read = reader.read(buf, limit, buf.length - limit);
+                if (read < 0) return false;
+                limit += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static boolean isFractionOrExponent(char c) {
+        return c == '.' || c == 'e' || c == 'E';
+    }
+
+    private IllegalStateException error(String message) {
+        return new IllegalStateException(message + " at offset " + (discarded + pos));
+    }
+}
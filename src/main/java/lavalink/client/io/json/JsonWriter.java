@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A minimal streaming JSON writer that appends straight to a {@link StringBuilder}.
+ * <p>
+ * Separators are inserted automatically. The writer does not validate that names and values alternate,
+ * that is the responsibility of the caller.
+ */
+@SuppressWarnings({"unused", "WeakerAccess", "UnusedReturnValue"})
+public final class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int MAX_DEPTH = 64;
+
+    private final StringBuilder out;
+    /* Whether the container at each depth already has an element */
+    private final boolean[] hasElement = new boolean[MAX_DEPTH];
+    private int depth = 0;
+    private boolean afterName = false;
+
+    public JsonWriter(@NonNull StringBuilder out) {
+        this.out = out;
+    }
+
+    public JsonWriter() {
+        this(new StringBuilder(128));
+    }
+
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    public JsonWriter name(@NonNull String name) {
+        separate();
+        writeString(name);
+        out.append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(@Nullable String value) {
+        separate();
+        if (value == null) {
+            out.append("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separate();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separate();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not allow non-finite numbers");
+        }
+        separate();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(float value) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not allow non-finite numbers");
+        }
+        separate();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Writes a value that is already encoded as JSON, such as the output of {@link org.json.JSONObject#toString()}.
+     */
+    public JsonWriter rawValue(@NonNull String json) {
+        separate();
+        out.append(json);
+        return this;
+    }
+
+    /**
+     * Writes a string value whose characters are known not to need escaping, such as a track blob.
+     */
+    public JsonWriter plainValue(@NonNull String value) {
+        separate();
+        out.append('"').append(value).append('"');
+        return this;
+    }
+
+    @NonNull
+    public StringBuilder getBuilder() {
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private JsonWriter open(char c) {
+        separate();
+        if (depth == MAX_DEPTH) throw new IllegalStateException("Nesting too deep");
+        out.append(c);
+        hasElement[depth++] = false;
+        return this;
+    }
+
+    private JsonWriter close(char c) {
+        if (depth == 0) throw new IllegalStateException("Nothing to close");
+        depth--;
+        out.append(c);
+        return this;
+    }
+
+    private void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) return;
+        if (hasElement[depth - 1]) out.append(',');
+        hasElement[depth - 1] = true;
+    }
+
+    private void writeString(String s) {
+        appendString(out, s);
+    }
+
+    /**
+     * Appends a quoted and escaped string.
+     */
+    static void appendString(StringBuilder out, String s) {
+        out.append('"');
+        int last = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+
+            out.append(s, last, i);
+            last = i + 1;
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    break;
+            }
+        }
+        out.append(s, last, length);
+        out.append('"');
+    }
+}
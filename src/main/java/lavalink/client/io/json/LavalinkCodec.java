@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.TrackLoadResult;
+import lavalink.client.io.filters.Filters;
+import lavalink.client.player.track.AudioTrack;
+import lavalink.client.player.track.DefaultAudioTrack;
+import lavalink.client.player.track.DefaultAudioTrackInfo;
+import org.apache.commons.io.IOUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Encodes and decodes everything exchanged with Lavalink nodes, over both the websocket and the REST API.
+ * <p>
+ * Implementations must be thread safe, as a single instance is shared by every node and player.
+ *
+ * @see DefaultLavalinkCodec
+ * @see OrgJsonCodec
+ * @see lavalink.client.io.Lavalink#setCodec(LavalinkCodec)
+ */
+public interface LavalinkCodec {
+
+    @NonNull
+    String encodePlay(long guildId, @NonNull String track, long startTime, long endTime, boolean paused, int volume);
+
+    @NonNull
+    String encodeStop(long guildId);
+
+    @NonNull
+    String encodePause(long guildId, boolean paused);
+
+    @NonNull
+    String encodeSeek(long guildId, long position);
+
+    @NonNull
+    String encodeVolume(long guildId, int volume);
+
+    @NonNull
+    String encodeFilters(long guildId, @NonNull Filters filters);
+
+    @NonNull
+    String encodeDestroy(long guildId);
+
+    @NonNull
+    String encodeVoiceUpdate(long guildId, @Nullable String sessionId, @NonNull JSONObject event);
+
+    /**
+     * Creates a writer for the outbound messages of one guild, which links keep for as long as this codec is in use.
+     * The default implementation forwards to the methods above.
+     */
+    @NonNull
+    default LinkMessageWriter newLinkWriter(long guildId) {
+        return new CodecLinkMessageWriter(this, guildId);
+    }
+
+    /**
+     * Decodes a message received over the websocket and passes it on to the handler.
+     * Messages with an unknown op or event type are logged and otherwise ignored.
+     *
+     * @throws RuntimeException if the message is malformed
+     */
+    void decodeMessage(@NonNull String message, @NonNull SocketMessageHandler handler);
+
+    /**
+     * Decodes a response of the Track Loading API.
+     *
+     * @throws RuntimeException if the response is malformed
+     */
+    @NonNull
+    TrackLoadResult decodeLoadResult(@NonNull String body);
+
+    /**
+     * Decodes a response of the Track Loading API as it is being received. The default implementation reads the
+     * whole response first.
+     *
+     * @throws RuntimeException if the response is malformed or could not be read
+     */
+    @NonNull
+    default TrackLoadResult decodeLoadResult(@NonNull Reader body) {
+        try {
+            return decodeLoadResult(IOUtils.toString(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes a response of the Track Loading API, handing its tracks to the consumer in chunks as soon as they have
+     * been decoded. The default implementation decodes the whole response first.
+     *
+     * @param chunkSize the amount of tracks in each chunk but the last
+     * @return the result, without its tracks
+     * @throws RuntimeException if the response is malformed or could not be read
+     */
+    @NonNull
+    default TrackLoadResult decodeLoadResult(@NonNull Reader body, int chunkSize,
+                                             @NonNull Consumer<List<AudioTrack>> chunkConsumer) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+
+        TrackLoadResult result = decodeLoadResult(body);
+        List<AudioTrack> tracks = result.getTracks();
+        for (int i = 0; i < tracks.size(); i += chunkSize) {
+            chunkConsumer.accept(tracks.subList(i, Math.min(tracks.size(), i + chunkSize)));
+        }
+        return new TrackLoadResult(result.getType(), Collections.emptyList(), result.getPlaylistName(),
+                result.getSelectedTrack(), result.getException());
+    }
+
+    /**
+     * Encodes the request body of the Track Decoding API, an array of encoded tracks.
+     */
+    @NonNull
+    default String encodeTrackList(@NonNull List<String> tracks) {
+        return new JSONArray(tracks).toString();
+    }
+
+    /**
+     * Decodes a response of the Track Decoding API, an array of tracks in the same form as those of a load result.
+     *
+     * @throws RuntimeException if the response is malformed or could not be read
+     */
+    @NonNull
+    default List<AudioTrack> decodeTrackList(@NonNull Reader body) {
+        JSONArray trackData = new JSONArray(new JSONTokener(body));
+        List<AudioTrack> tracks = new ArrayList<>(trackData.length());
+
+        for (Object track : trackData) {
+            String trackBase64 = ((JSONObject) track).getString("track");
+            tracks.add(new DefaultAudioTrack(trackBase64, DefaultAudioTrackInfo.fromJSON(((JSONObject) track).getJSONObject("info"))));
+        }
+
+        return tracks;
+    }
+
+}
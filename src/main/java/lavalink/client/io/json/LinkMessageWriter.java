@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.filters.Filters;
+import org.json.JSONObject;
+
+/**
+ * Encodes the outbound messages of a single {@link lavalink.client.io.Link Link}.
+ * <p>
+ * Obtained from {@link LavalinkCodec#newLinkWriter(long)} and cached by the link, which allows implementations
+ * to keep anything derived from the guild id, or even complete messages, between calls.
+ *
+ * @see lavalink.client.io.Link#getMessageWriter()
+ */
+public interface LinkMessageWriter {
+
+    @NonNull
+    String play(@NonNull String track, long startTime, long endTime, boolean paused, int volume);
+
+    @NonNull
+    String stop();
+
+    @NonNull
+    String pause(boolean paused);
+
+    @NonNull
+    String seek(long position);
+
+    @NonNull
+    String volume(int volume);
+
+    @NonNull
+    String filters(@NonNull Filters filters);
+
+    @NonNull
+    String destroy();
+
+    @NonNull
+    String voiceUpdate(@Nullable String sessionId, @NonNull JSONObject event);
+
+}
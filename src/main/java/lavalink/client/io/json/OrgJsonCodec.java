@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.FriendlyException;
+import lavalink.client.io.RemoteTrackException;
+import lavalink.client.io.TrackLoadResult;
+import lavalink.client.io.filters.*;
+import lavalink.client.player.track.AudioTrack;
+import lavalink.client.player.track.AudioTrackEndReason;
+import lavalink.client.player.track.DefaultAudioTrack;
+import lavalink.client.player.track.DefaultAudioTrackInfo;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A codec which builds a {@link JSONObject} for every message, as the client has historically done.
+ * Mostly useful as a reference for other implementations.
+ */
+@SuppressWarnings("unused")
+public class OrgJsonCodec implements LavalinkCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(OrgJsonCodec.class);
+
+    @NonNull
+    @Override
+    public String encodePlay(long guildId, @NonNull String track, long startTime, long endTime, boolean paused, int volume) {
+        JSONObject json = new JSONObject();
+        json.put("op", "play");
+        json.put("guildId", Long.toString(guildId));
+        json.put("track", track);
+        json.put("startTime", startTime);
+        if (endTime != 0) {
+            json.put("endTime", endTime);
+        }
+        json.put("pause", paused);
+        json.put("volume", volume);
+        return json.toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeStop(long guildId) {
+        JSONObject json = new JSONObject();
+        json.put("op", "stop");
+        json.put("guildId", Long.toString(guildId));
+        return json.toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodePause(long guildId, boolean paused) {
+        JSONObject json = new JSONObject();
+        json.put("op", "pause");
+        json.put("guildId", Long.toString(guildId));
+        json.put("pause", paused);
+        return json.toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeSeek(long guildId, long position) {
+        JSONObject json = new JSONObject();
+        json.put("op", "seek");
+        json.put("guildId", Long.toString(guildId));
+        json.put("position", position);
+        return json.toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeVolume(long guildId, int volume) {
+        JSONObject json = new JSONObject();
+        json.put("op", "volume");
+        json.put("guildId", Long.toString(guildId));
+        json.put("volume", volume);
+        return json.toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeFilters(long guildId, @NonNull Filters filters) {
+        JSONObject json = new JSONObject();
+        json.put("op", "filters");
+        json.put("guildId", Long.toString(guildId));
+
+        // Volume
+        json.put("volume", filters.getVolume());
+
+        // Equalizer
+        JSONArray bands = new JSONArray();
+        int i = -1;
+        for (float f : filters.getBands()) {
+            i++;
+            if (f == 0.0f) continue;
+            JSONObject obj = new JSONObject();
+            obj.put("band", i);
+            obj.put("gain", f);
+            bands.put(obj);
+        }
+        if (bands.length() > 0) json.put("equalizer", bands);
+
+        Timescale timescale = filters.getTimescale();
+        if (timescale != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("speed", timescale.getSpeed());
+            obj.put("pitch", timescale.getPitch());
+            obj.put("rate", timescale.getRate());
+            json.put("timescale", obj);
+        }
+
+        Karaoke karaoke = filters.getKaraoke();
+        if (karaoke != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("level", karaoke.getLevel());
+            obj.put("monoLevel", karaoke.getMonoLevel());
+            obj.put("filterBand", karaoke.getFilterBand());
+            obj.put("filterWidth", karaoke.getFilterWidth());
+            json.put("karaoke", obj);
+        }
+
+        Tremolo tremolo = filters.getTremolo();
+        if (tremolo != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("frequency", tremolo.getFrequency());
+            obj.put("depth", tremolo.getDepth());
+            json.put("tremolo", obj);
+        }
+
+        Vibrato vibrato = filters.getVibrato();
+        if (vibrato != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("frequency", vibrato.getFrequency());
+            obj.put("depth", vibrato.getDepth());
+            json.put("vibrato", obj);
+        }
+
+        Rotation rotation = filters.getRotation();
+        if (rotation != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("rotationHz", rotation.getFrequency());
+            json.put("rotation", obj);
+        }
+
+        Distortion distortion = filters.getDistortion();
+        if (distortion != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("sinOffset", distortion.getSinOffset());
+            obj.put("sinScale", distortion.getSinScale());
+            obj.put("cosOffset", distortion.getCosOffset());
+            obj.put("cosScale", distortion.getCosScale());
+            obj.put("tanOffset", distortion.getTanOffset());
+            obj.put("tanScale", distortion.getTanScale());
+            obj.put("offset", distortion.getOffset());
+            obj.put("scale", distortion.getScale());
+            json.put("distortion", obj);
+        }
+
+        ChannelMix channelMix = filters.getChannelMix();
+        if (channelMix != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("leftToLeft", channelMix.getLeftToLeft());
+            obj.put("leftToRight", channelMix.getLeftToRight());
+            obj.put("rightToLeft", channelMix.getRightToLeft());
+            obj.put("rightToRight", channelMix.getRightToRight());
+            json.put("channelMix", obj);
+        }
+
+        LowPass lowPass = filters.getLowPass();
+        if (lowPass != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("smoothing", lowPass.getSmoothing());
+            json.put("lowPass", obj);
+        }
+
+        return json.toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeDestroy(long guildId) {
+        return new JSONObject()
+                .put("op", "destroy")
+                .put("guildId", Long.toString(guildId))
+                .toString();
+    }
+
+    @NonNull
+    @Override
+    public String encodeVoiceUpdate(long guildId, @Nullable String sessionId, @NonNull JSONObject event) {
+        JSONObject out = new JSONObject();
+        out.put("op", "voiceUpdate");
+        out.put("sessionId", sessionId);
+        out.put("guildId", Long.toString(guildId));
+        out.put("event", event);
+        return out.toString();
+    }
+
+    @Override
+    public void decodeMessage(@NonNull String message, @NonNull SocketMessageHandler handler) {
+        JSONObject json = new JSONObject(message);
+
+        if (!Objects.equals(json.getString("op"), "playerUpdate")) {
+            log.debug(message);
+        }
+
+        switch (json.getString("op")) {
+            case "playerUpdate":
+                JSONObject state = json.getJSONObject("state");
+                handler.onPlayerUpdate(
+                        json.getLong("guildId"),
+                        state.getLong("time"),
+                        state.optLong("position", 0),
+                        state.optBoolean("connected", true)
+                );
+                break;
+            case "stats":
+                handler.onStats(json);
+                break;
+            case "event":
+                decodeEvent(json, handler);
+                break;
+            default:
+                log.warn("Unexpected operation: " + json.getString("op"));
+                break;
+        }
+    }
+
+    private void decodeEvent(JSONObject json, SocketMessageHandler handler) {
+        long guildId = json.getLong("guildId");
+
+        switch (json.getString("type")) {
+            case "TrackStartEvent":
+                handler.onTrackStart(guildId, json.getString("track"));
+                break;
+            case "TrackEndEvent":
+                handler.onTrackEnd(guildId, json.getString("track"), AudioTrackEndReason.valueOf(json.getString("reason")));
+                break;
+            case "TrackExceptionEvent":
+                Exception ex;
+                if (json.has("exception")) {
+                    JSONObject jsonEx = json.getJSONObject("exception");
+                    ex = new FriendlyException(jsonEx.getString("message"), FriendlyException.Severity.valueOf(jsonEx.getString("severity")), new RuntimeException(jsonEx.getString("cause"))
+                    );
+                } else {
+                    ex = new RemoteTrackException(json.getString("error"));
+                }
+
+                handler.onTrackException(guildId, json.getString("track"), ex);
+                break;
+            case "TrackStuckEvent":
+                handler.onTrackStuck(guildId, json.getString("track"), json.getLong("thresholdMs"));
+                break;
+            case "WebSocketClosedEvent":
+                handler.onWebSocketClosed(guildId, json.getInt("code"), json.getString("reason"), json.getBoolean("byRemote"));
+                break;
+            default:
+                log.warn("Unexpected event type: " + json.getString("type"));
+                break;
+        }
+    }
+
+    @NonNull
+    @Override
+    public TrackLoadResult decodeLoadResult(@NonNull String body) {
+        JSONObject loadResult = new JSONObject(body);
+        String loadType = loadResult.getString("loadType");
+
+        switch (loadType) {
+            case "TRACK_LOADED":
+            case "SEARCH_RESULT":
+                return new TrackLoadResult(TrackLoadResult.Type.valueOf(loadType), decodeTracks(loadResult), null, -1, null);
+            case "PLAYLIST_LOADED":
+                JSONObject playlistInfo = loadResult.getJSONObject("playlistInfo");
+                return new TrackLoadResult(TrackLoadResult.Type.PLAYLIST_LOADED, decodeTracks(loadResult),
+                        playlistInfo.getString("name"), playlistInfo.optInt("selectedTrack", -1), null);
+            case "NO_MATCHES":
+                return new TrackLoadResult(TrackLoadResult.Type.NO_MATCHES, new ArrayList<>(), null, -1, null);
+            case "LOAD_FAILED":
+                JSONObject exception = loadResult.getJSONObject("exception");
+                FriendlyException.Severity severity = FriendlyException.Severity.valueOf(exception.getString("severity"));
+                return TrackLoadResult.failed(new FriendlyException(exception.getString("message"), severity, new Throwable()));
+            default:
+                throw new IllegalArgumentException("Invalid loadType: " + loadType);
+        }
+    }
+
+    private static List<AudioTrack> decodeTracks(JSONObject loadResult) {
+        JSONArray trackData = loadResult.getJSONArray("tracks");
+        List<AudioTrack> tracks = new ArrayList<>(trackData.length());
+
+        for (Object track : trackData) {
+            String trackBase64 = ((JSONObject) track).getString("track");
+            tracks.add(new DefaultAudioTrack(trackBase64, DefaultAudioTrackInfo.fromJSON(((JSONObject) track).getJSONObject("info"))));
+        }
+
+        return tracks;
+    }
+}
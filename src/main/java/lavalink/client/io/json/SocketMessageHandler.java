@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.player.track.AudioTrackEndReason;
+import org.json.JSONObject;
+
+/**
+ * Receives the messages decoded by {@link LavalinkCodec#decodeMessage(String, SocketMessageHandler)}.
+ * Track arguments are the base64 encoded track as sent by the node.
+ */
+public interface SocketMessageHandler {
+
+    void onPlayerUpdate(long guildId, long time, long position, boolean connected);
+
+    /**
+     * Stats are only sent about once a minute, and {@link lavalink.client.io.RemoteStats} exposes the parsed object.
+     *
+     * @param stats the complete stats message
+     */
+    void onStats(@NonNull JSONObject stats);
+
+    void onTrackStart(long guildId, @NonNull String track);
+
+    void onTrackEnd(long guildId, @NonNull String track, @NonNull AudioTrackEndReason reason);
+
+    void onTrackException(long guildId, @NonNull String track, @NonNull Exception exception);
+
+    void onTrackStuck(long guildId, @NonNull String track, long thresholdMs);
+
+    void onWebSocketClosed(long guildId, int code, @Nullable String reason, boolean byRemote);
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2017 Frederik Ar. Mikkelsen & NoobLance
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package lavalink.client.io.json;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lavalink.client.io.filters.Filters;
+import org.json.JSONObject;
+
+/**
+ * The {@link LinkMessageWriter} of {@link DefaultLavalinkCodec}.
+ * <p>
+ * Messages without arguments, and both pause messages, are built once and then reused, so sending them
+ * allocates nothing. Other messages are assembled in a thread local buffer from the cached guild id fragment,
+ * which costs one string allocation per message.
+ */
+final class TemplateLinkMessageWriter implements LinkMessageWriter {
+
+    private static final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private final DefaultLavalinkCodec codec;
+    private final long guildId;
+    /* ,"guildId":"<id>" */
+    private final String guildFragment;
+
+    /* Lazily built. Races are harmless, as every thread builds an equal string */
+    private String stop;
+    private String pause;
+    private String resume;
+    private String destroy;
+
+    TemplateLinkMessageWriter(DefaultLavalinkCodec codec, long guildId) {
+        this.codec = codec;
+        this.guildId = guildId;
+        this.guildFragment = ",\"guildId\":\"" + guildId + '"';
+    }
+
+    @NonNull
+    @Override
+    public String play(@NonNull String track, long startTime, long endTime, boolean paused, int volume) {
+        StringBuilder sb = begin("play").append(",\"track\":");
+        JsonWriter.appendString(sb, track);
+        sb.append(",\"startTime\":").append(startTime);
+        if (endTime != 0) {
+            sb.append(",\"endTime\":").append(endTime);
+        }
+        return sb.append(",\"pause\":").append(paused)
+                .append(",\"volume\":").append(volume)
+                .append('}')
+                .toString();
+    }
+
+    @NonNull
+    @Override
+    public String stop() {
+        String message = stop;
+        if (message == null) stop = message = begin("stop").append('}').toString();
+        return message;
+    }
+
+    @NonNull
+    @Override
+    public String pause(boolean paused) {
+        if (paused) {
+            String message = pause;
+            if (message == null) pause = message = begin("pause").append(",\"pause\":true}").toString();
+            return message;
+        }
+
+        String message = resume;
+        if (message == null) resume = message = begin("pause").append(",\"pause\":false}").toString();
+        return message;
+    }
+
+    @NonNull
+    @Override
+    public String seek(long position) {
+        return begin("seek").append(",\"position\":").append(position).append('}').toString();
+    }
+
+    @NonNull
+    @Override
+    public String volume(int volume) {
+        return begin("volume").append(",\"volume\":").append(volume).append('}').toString();
+    }
+
+    @NonNull
+    @Override
+    public String filters(@NonNull Filters filters) {
+        return codec.encodeFilters(guildId, filters);
+    }
+
+    @NonNull
+    @Override
+    public String destroy() {
+        String message = destroy;
+        if (message == null) destroy = message = begin("destroy").append('}').toString();
+        return message;
+    }
+
+    @NonNull
+    @Override
+    public String voiceUpdate(@Nullable String sessionId, @NonNull JSONObject event) {
+        return codec.encodeVoiceUpdate(guildId, sessionId, event);
+    }
+
+    private StringBuilder begin(String op) {
+        StringBuilder sb = buffers.get();
+        sb.setLength(0);
+        return sb.append("{\"op\":\"").append(op).append('"').append(guildFragment);
+    }
+}
@@ -2,14 +2,24 @@ package lavalink.client.io.metrics;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
 import io.prometheus.client.GaugeMetricFamily;
+import io.prometheus.client.SummaryMetricFamily;
+import lavalink.client.io.EventDispatcher;
 import lavalink.client.io.Lavalink;
 import lavalink.client.io.LavalinkSocket;
+import lavalink.client.io.MessagePriority;
+import lavalink.client.io.OutboundQueue;
 import lavalink.client.io.RemoteStats;
+import lavalink.client.io.TrackLoadCache;
+import lavalink.client.player.track.TrackStringPool;
+import org.apache.http.pool.PoolStats;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Created by napster on 22.01.18.
@@ -78,9 +88,127 @@ public class LavalinkCollector extends Collector {
         mfs.add(averageFramesDeficitPerMinute);
 
 
+        List<String> laneLabelNames = Arrays.asList("node", "lane");
+        GaugeMetricFamily outboundQueueDepth = new GaugeMetricFamily("lavalink_outbound_queue_depth",
+                "Amount of messages waiting to be written", laneLabelNames);
+        mfs.add(outboundQueueDepth);
+        CounterMetricFamily outboundMessagesDropped = new CounterMetricFamily("lavalink_outbound_messages_dropped_total",
+                "Amount of messages dropped because the outbound queue was full", laneLabelNames);
+        mfs.add(outboundMessagesDropped);
+        SummaryMetricFamily outboundWaitSeconds = new SummaryMetricFamily("lavalink_outbound_wait_seconds",
+                "Time messages spent waiting in the outbound queue", laneLabelNames);
+        mfs.add(outboundWaitSeconds);
+        SummaryMetricFamily outboundFlushSeconds = new SummaryMetricFamily("lavalink_outbound_flush_seconds",
+                "Time spent writing batches from the outbound queue", labelNames);
+        mfs.add(outboundFlushSeconds);
+
+
+        GaugeMetricFamily restPoolLeased = new GaugeMetricFamily("lavalink_rest_pool_leased",
+                "Amount of REST connections in use", labelNames);
+        mfs.add(restPoolLeased);
+        GaugeMetricFamily restPoolPending = new GaugeMetricFamily("lavalink_rest_pool_pending",
+                "Amount of REST requests waiting for a connection", labelNames);
+        mfs.add(restPoolPending);
+        GaugeMetricFamily restPoolAvailable = new GaugeMetricFamily("lavalink_rest_pool_available",
+                "Amount of idle REST connections", labelNames);
+        mfs.add(restPoolAvailable);
+        GaugeMetricFamily restPoolMax = new GaugeMetricFamily("lavalink_rest_pool_max",
+                "Maximum amount of REST connections", labelNames);
+        mfs.add(restPoolMax);
+        CounterMetricFamily trackLoadsCoalesced = new CounterMetricFamily("lavalink_track_loads_coalesced_total",
+                "Amount of track loads that shared the request of an identical load in flight", labelNames);
+        mfs.add(trackLoadsCoalesced);
+
+
+        CounterMetricFamily reconnectAttempts = new CounterMetricFamily("lavalink_reconnect_attempts_total",
+                "Amount of attempts to reconnect to the node", labelNames);
+        mfs.add(reconnectAttempts);
+        CounterMetricFamily reconnectSuccesses = new CounterMetricFamily("lavalink_reconnect_successes_total",
+                "Amount of attempts to reconnect to the node that succeeded", labelNames);
+        mfs.add(reconnectSuccesses);
+        GaugeMetricFamily nextReconnectSeconds = new GaugeMetricFamily("lavalink_next_reconnect_timestamp_seconds",
+                "Time of the next attempt to reconnect to the node, if one is scheduled", labelNames);
+        mfs.add(nextReconnectSeconds);
+
+
+        TrackLoadCache trackLoadCache = lavalink.getTrackLoadCache();
+        if (trackLoadCache != null) {
+            mfs.add(new CounterMetricFamily("lavalink_track_load_cache_hits_total",
+                    "Amount of track loads answered by the cache", trackLoadCache.getHits()));
+            mfs.add(new CounterMetricFamily("lavalink_track_load_cache_misses_total",
+                    "Amount of track loads not found in the cache", trackLoadCache.getMisses()));
+            mfs.add(new CounterMetricFamily("lavalink_track_load_cache_evictions_total",
+                    "Amount of track load results evicted to stay within the cache limits", trackLoadCache.getEvictions()));
+            mfs.add(new CounterMetricFamily("lavalink_track_load_cache_expirations_total",
+                    "Amount of track load results removed because their TTL had passed", trackLoadCache.getExpirations()));
+            mfs.add(new GaugeMetricFamily("lavalink_track_load_cache_entries",
+                    "Amount of track load results in the cache", trackLoadCache.getSize()));
+            mfs.add(new GaugeMetricFamily("lavalink_track_load_cache_weight",
+                    "Amount of tracks held by the cache", trackLoadCache.getWeight()));
+        }
+
+
+        TrackStringPool trackStringPool = TrackStringPool.getShared();
+        if (trackStringPool != null) {
+            mfs.add(new CounterMetricFamily("lavalink_track_string_pool_hits_total",
+                    "Amount of decoded track strings replaced by a pooled instance", trackStringPool.getHits()));
+            mfs.add(new CounterMetricFamily("lavalink_track_string_pool_misses_total",
+                    "Amount of decoded track strings not found in the pool", trackStringPool.getMisses()));
+            mfs.add(new CounterMetricFamily("lavalink_track_string_pool_rejected_total",
+                    "Amount of decoded track strings not pooled because the pool was full", trackStringPool.getRejected()));
+            mfs.add(new CounterMetricFamily("lavalink_track_string_pool_deduplicated_chars_total",
+                    "Summed length of the decoded track strings replaced by a pooled instance", trackStringPool.getCharsDeduplicated()));
+            mfs.add(new GaugeMetricFamily("lavalink_track_string_pool_entries",
+                    "Amount of strings in the pool", trackStringPool.getSize()));
+        }
+
+
+        List<String> typeLabelNames = Collections.singletonList("type");
+        EventDispatcher eventDispatcher = lavalink.getEventDispatcher();
+        GaugeMetricFamily eventQueueDepth = new GaugeMetricFamily("lavalink_event_queue_depth",
+                "Amount of player events waiting to be dispatched", Collections.emptyList());
+        eventQueueDepth.addMetric(Collections.emptyList(), eventDispatcher.getDepth());
+        mfs.add(eventQueueDepth);
+        CounterMetricFamily eventsDropped = new CounterMetricFamily("lavalink_events_dropped_total",
+                "Amount of player events dropped because the queue of their guild was full", typeLabelNames);
+        mfs.add(eventsDropped);
+        SummaryMetricFamily eventDispatchLagSeconds = new SummaryMetricFamily("lavalink_event_dispatch_lag_seconds",
+                "Time player events spent waiting to be dispatched", typeLabelNames);
+        mfs.add(eventDispatchLagSeconds);
+        for (EventDispatcher.EventTypeStats typeStats : eventDispatcher.getStats().values()) {
+            List<String> typeLabels = Collections.singletonList(typeStats.getType());
+            eventsDropped.addMetric(typeLabels, typeStats.getDropped());
+            eventDispatchLagSeconds.addMetric(typeLabels, typeStats.getDispatched(), typeStats.getLagNanos() / 1e9);
+        }
+
+
         List<LavalinkSocket> nodes = lavalink.getNodes();
         for (LavalinkSocket node : nodes) {
             List<String> labels = Collections.singletonList(node.getName());
+
+            OutboundQueue queue = node.getOutboundQueue();
+            if (queue != null) {
+                for (MessagePriority lane : MessagePriority.values()) {
+                    List<String> laneLabels = Arrays.asList(node.getName(), lane.name().toLowerCase(Locale.ROOT));
+                    outboundQueueDepth.addMetric(laneLabels, queue.getDepth(lane));
+                    outboundMessagesDropped.addMetric(laneLabels, queue.getMessagesDropped(lane));
+                    outboundWaitSeconds.addMetric(laneLabels, queue.getMessagesSent(lane), queue.getWaitNanos(lane) / 1e9);
+                }
+                outboundFlushSeconds.addMetric(labels, queue.getBatchesFlushed(), queue.getFlushNanos() / 1e9);
+            }
+
+            PoolStats poolStats = node.getRestClient().getPoolStats();
+            restPoolLeased.addMetric(labels, poolStats.getLeased());
+            restPoolPending.addMetric(labels, poolStats.getPending());
+            restPoolAvailable.addMetric(labels, poolStats.getAvailable());
+            restPoolMax.addMetric(labels, poolStats.getMax());
+            trackLoadsCoalesced.addMetric(labels, node.getRestClient().getCoalescedLoads());
+
+            reconnectAttempts.addMetric(labels, node.getReconnectAttempts());
+            reconnectSuccesses.addMetric(labels, node.getReconnectSuccesses());
+            long nextReconnectTime = node.getNextReconnectTime();
+            if (nextReconnectTime != -1) nextReconnectSeconds.addMetric(labels, nextReconnectTime / 1000d);
+
             RemoteStats stats = node.getStats();
             if (stats == null) {
                 continue;
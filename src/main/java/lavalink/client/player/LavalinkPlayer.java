@@ -24,13 +24,14 @@ package lavalink.client.player;
 
 import lavalink.client.io.LavalinkSocket;
 import lavalink.client.io.Link;
-import lavalink.client.io.filters.*;
+import lavalink.client.io.MessagePriority;
+import lavalink.client.io.filters.Filters;
 import lavalink.client.player.event.IPlayerEventListener;
 import lavalink.client.player.event.PlayerEvent;
 import lavalink.client.player.event.PlayerPauseEvent;
 import lavalink.client.player.event.PlayerResumeEvent;
 import lavalink.client.player.track.AudioTrack;
-import org.json.JSONArray;
+import lavalink.client.player.track.AudioTrackInfo;
 import org.json.JSONObject;
 
 import javax.annotation.CheckReturnValue;
@@ -45,6 +46,8 @@ public class LavalinkPlayer implements IPlayer {
 	private int volume = 100;
 	private long updateTime = -1;
 	private long position = -1;
+	/* Position at which the track stopped when our link lost its node, or -1 */
+	private long frozenPosition = -1;
 	/**
 	 * Lazily initialized
 	 */
@@ -66,14 +69,42 @@ public class LavalinkPlayer implements IPlayer {
 	/**
 	 * Invoked by {@link Link} to make sure we keep playing music on the new node
 	 * <p>
-	 * Used when we are moved to a new socket
+	 * Used when we are moved to a new socket. Seekable tracks resume at their current position.
 	 */
 	public void onNodeChange() {
 		AudioTrack track = getPlayingTrack();
 		if (track != null) {
-			playTrack(track);
+			sendPlay(track, getResumePosition(track), 0, MessagePriority.BULK);
 		}
+		frozenPosition = -1;
+	}
 
+	/**
+	 * Invoked by {@link Link} when it leaves its node, to remember where the track stopped playing
+	 *
+	 * @param aliveUntil the time until which the node is known to have been playing, in epoch milliseconds
+	 */
+	public void freezePosition(long aliveUntil) {
+		if (track == null) return;
+		long elapsed = paused ? 0 : Math.min(aliveUntil, System.currentTimeMillis()) - updateTime;
+		frozenPosition = Math.max(0, position) + Math.max(0, elapsed);
+	}
+
+	private long getResumePosition(AudioTrack track) {
+		AudioTrackInfo info;
+		try {
+			info = track.getInfo();
+		} catch (RuntimeException e) {
+			return 0; // Malformed track, we can't tell where it was. Don't let it abort the failover of other links
+		}
+		if (info.isStream()) return 0;
+
+		long resumePosition = frozenPosition;
+		if (resumePosition < 0) {
+			resumePosition = Math.max(0, position) + (paused ? 0 : System.currentTimeMillis() - updateTime);
+		}
+		// Resuming at the very end would just skip the track
+		return resumePosition >= info.getLength() ? 0 : resumePosition;
 	}
 
 	@Override
@@ -88,32 +119,28 @@ public class LavalinkPlayer implements IPlayer {
 
 	@Override
 	public void playTrack(AudioTrack track, long startTime, long endTime) {
-		JSONObject json = new JSONObject();
-		json.put("op", "play");
-		json.put("guildId", Long.toString(link.getGuildId()));
-		json.put("track", track.getTrack());
-		json.put("startTime", startTime);
-		if (endTime != 0) {
-			json.put("endTime", endTime);
-		}
-		json.put("pause", paused);
-		json.put("volume", volume);
-		link.getNode(true).send(json.toString());
+		sendPlay(track, startTime, endTime, MessagePriority.INTERACTIVE);
+	}
+
+	private void sendPlay(AudioTrack track, long startTime, long endTime, MessagePriority priority) {
+		String message = link.getMessageWriter().play(track.getTrack(), startTime, endTime, paused, volume);
+		link.getNode(true).send(message, link.getGuildId(), priority);
 
 		updateTime = System.currentTimeMillis();
+		position = startTime;
+		frozenPosition = -1;
 		this.track = track;
+		link.updatePlayingState();
 	}
 
 	@Override
 	public void stopTrack() {
 		track = null;
+		link.updatePlayingState();
 
 		LavalinkSocket node = link.getNode(false);
 		if (node == null) return;
-		JSONObject json = new JSONObject();
-		json.put("op", "stop");
-		json.put("guildId", Long.toString(link.getGuildId()));
-		node.send(json.toString());
+		node.send(link.getMessageWriter().stop(), link.getGuildId(), MessagePriority.INTERACTIVE);
 	}
 
 	@Override
@@ -121,13 +148,10 @@ public class LavalinkPlayer implements IPlayer {
 		if (pause == paused) return;
 		LavalinkSocket node = link.getNode(false);
 		if (node != null) {
-			JSONObject json = new JSONObject();
-			json.put("op", "pause");
-			json.put("guildId", Long.toString(link.getGuildId()));
-			json.put("pause", pause);
-			node.send(json.toString());
+			node.send(link.getMessageWriter().pause(pause), link.getGuildId(), MessagePriority.INTERACTIVE);
 		}
 		paused = pause;
+		link.updatePlayingState();
 
 		if (pause) {
 			emitEvent(new PlayerPauseEvent(this));
@@ -145,7 +169,10 @@ public class LavalinkPlayer implements IPlayer {
 	public long getTrackPosition() {
 		if (getPlayingTrack() == null) throw new IllegalStateException("Not currently playing anything");
 
-		if (!paused) {
+		if (frozenPosition >= 0) {
+			// Not playing anywhere until we are on a node again
+			return Math.min(frozenPosition, track.getInfo().getLength());
+		} else if (!paused) {
 			// Account for the time since our last update
 			long timeDiff = System.currentTimeMillis() - updateTime;
 			return Math.min(position + timeDiff, track.getInfo().getLength());
@@ -160,11 +187,7 @@ public class LavalinkPlayer implements IPlayer {
 		if (getPlayingTrack() == null) throw new IllegalStateException("Not currently playing anything");
 		if (getPlayingTrack().getInfo().isStream()) throw new IllegalStateException("Track cannot be seeked");
 
-		JSONObject json = new JSONObject();
-		json.put("op", "seek");
-		json.put("guildId", Long.toString(link.getGuildId()));
-		json.put("position", position);
-		link.getNode(true).send(json.toString());
+		link.getNode(true).send(link.getMessageWriter().seek(position), link.getGuildId(), MessagePriority.INTERACTIVE);
 
 		this.position = position;
 	}
@@ -177,11 +200,7 @@ public class LavalinkPlayer implements IPlayer {
 		LavalinkSocket node = link.getNode(false);
 		if (node == null) return;
 
-		JSONObject json = new JSONObject();
-		json.put("op", "volume");
-		json.put("guildId", Long.toString(link.getGuildId()));
-		json.put("volume", volume);
-		node.send(json.toString());
+		node.send(link.getMessageWriter().volume(volume), link.getGuildId(), MessagePriority.INTERACTIVE);
 	}
 
 	@Override
@@ -202,9 +221,20 @@ public class LavalinkPlayer implements IPlayer {
 	}
 
 	public void provideState(JSONObject json) {
-		updateTime = json.getLong("time");
-		position = json.optLong("position", 0);
-		connected = json.optBoolean("connected", true);
+		provideState(json.getLong("time"), json.optLong("position", 0), json.optBoolean("connected", true));
+	}
+
+	/**
+	 * Invoked when the node reports the state of this player.
+	 *
+	 * @param time      the time of the update, in epoch milliseconds
+	 * @param position  the position of the track, in milliseconds
+	 * @param connected whether the node is connected to the voice gateway
+	 */
+	public void provideState(long time, long position, boolean connected) {
+		this.updateTime = time;
+		this.position = position;
+		this.connected = connected;
 	}
 
 	@Override
@@ -218,11 +248,12 @@ public class LavalinkPlayer implements IPlayer {
 	}
 
 	public void emitEvent(PlayerEvent event) {
-		listeners.forEach(listener -> listener.onEvent(event));
+		link.getLavalink().getEventDispatcher().dispatch(link.getGuildId(), event, listeners);
 	}
 
 	public void clearTrack() {
 		track = null;
+		link.updatePlayingState();
 	}
 
 	@SuppressWarnings({"unused"})
@@ -234,100 +265,7 @@ public class LavalinkPlayer implements IPlayer {
 		LavalinkSocket node = link.getNode(false);
 		if (node == null) return;
 
-		JSONObject json = new JSONObject();
-		json.put("op", "filters");
-		json.put("guildId", Long.toString(link.getGuildId()));
-
-		// Volume
-		json.put("volume", filters.getVolume());
-
-		// Equalizer
-		JSONArray bands = new JSONArray();
-		int i = -1;
-		for (float f : filters.getBands()) {
-			i++;
-			if (f == 0.0f) continue;
-			JSONObject obj = new JSONObject();
-			obj.put("band", i);
-			obj.put("gain", f);
-			bands.put(obj);
-		}
-		if (bands.length() > 0) json.put("equalizer", bands);
-
-		Timescale timescale = filters.getTimescale();
-		if (timescale != null) {
-			JSONObject obj = new JSONObject();
-			obj.put("speed", timescale.getSpeed());
-			obj.put("pitch", timescale.getPitch());
-			obj.put("rate", timescale.getRate());
-			json.put("timescale", obj);
-		}
-
-		Karaoke karaoke = filters.getKaraoke();
-		if (karaoke != null) {
-			JSONObject obj = new JSONObject();
-			obj.put("level", karaoke.getLevel());
-			obj.put("monoLevel", karaoke.getMonoLevel());
-			obj.put("filterBand", karaoke.getFilterBand());
-			obj.put("filterWidth", karaoke.getFilterWidth());
-			json.put("karaoke", obj);
-		}
-
-		Tremolo tremolo = filters.getTremolo();
-		if (tremolo != null) {
-			JSONObject obj = new JSONObject();
-			obj.put("frequency", tremolo.getFrequency());
-			obj.put("depth", tremolo.getDepth());
-			json.put("tremolo", obj);
-		}
-
-		Vibrato vibrato = filters.getVibrato();
-		if (vibrato != null) {
-			JSONObject obj = new JSONObject();
-			obj.put("frequency", vibrato.getFrequency());
-			obj.put("depth", vibrato.getDepth());
-			json.put("vibrato", obj);
-		}
-
-		Rotation rotation = filters.getRotation();
-		if (rotation != null) {
-			JSONObject obj = new JSONObject();
-			obj.put("rotationHz", rotation.getFrequency());
-			json.put("rotation", obj);
-		}
-
-		Distortion distortion = filters.getDistortion();
-		if (distortion != null) {
-			JSONObject obj = new JSONObject();
-			obj.put("sinOffset", distortion.getSinOffset());
-			obj.put("sinScale", distortion.getSinScale());
-			obj.put("cosOffset", distortion.getCosOffset());
-			obj.put("cosScale", distortion.getCosScale());
-			obj.put("tanOffset", distortion.getTanOffset());
-			obj.put("tanScale", distortion.getTanScale());
-			obj.put("offset", distortion.getOffset());
-			obj.put("scale", distortion.getScale());
-			json.put("distortion", obj);
-		}
-
-		ChannelMix channelMix = filters.getChannelMix();
-		if (channelMix != null) {
-			JSONObject obj = new JSONObject();
-			obj.put("leftToLeft", channelMix.getLeftToLeft());
-			obj.put("leftToRight", channelMix.getLeftToRight());
-			obj.put("rightToLeft", channelMix.getRightToLeft());
-			obj.put("rightToRight", channelMix.getRightToRight());
-			json.put("channelMix", obj);
-		}
-
-		LowPass lowPass = filters.getLowPass();
-		if (lowPass != null) {
-			JSONObject obj = new JSONObject();
-			obj.put("smoothing", lowPass.getSmoothing());
-			json.put("lowPass", obj);
-		}
-
-		node.send(json.toString());
+		node.send(link.getMessageWriter().filters(filters), link.getGuildId(), MessagePriority.INTERACTIVE);
 	}
 
 	/**
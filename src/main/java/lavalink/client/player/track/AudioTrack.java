@@ -22,46 +22,11 @@ public interface AudioTrack {
 	}
 
 	static AudioTrackInfo decode(String track) throws IOException {
-		ByteArrayInputStream bais = new ByteArrayInputStream(Base64.getDecoder().decode(track));
-		MessageInput stream = new MessageInput(bais);
-		DataInput input = stream.nextMessage();
-		if (input == null) {
-			return null;
-		}
-
-		input.readByte();
-
-		AudioTrackInfo trackInfo = new DefaultAudioTrackInfo(
-				input.readUTF(),
-				input.readUTF(),
-				input.readLong(),
-				input.readUTF(),
-				input.readBoolean(),
-				readNullableText(input),
-				input.readUTF()
-		);
-
-		stream.skipRemainingBytes();
-		return trackInfo;
+		return TrackInfoCodec.decode(Base64.getDecoder().decode(track));
 	}
 
 	static String encode(AudioTrackInfo trackInfo) throws IOException {
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		MessageOutput stream = new MessageOutput(baos);
-		DataOutput output = stream.startMessage();
-		output.write(TRACK_INFO_VERSION);
-
-		output.writeUTF(trackInfo.getTitle());
-		output.writeUTF(trackInfo.getAuthor());
-		output.writeLong(trackInfo.getLength());
-		output.writeUTF(trackInfo.getIdentifier());
-		output.writeBoolean(trackInfo.isStream());
-		writeNullableText(output, trackInfo.getUri());
-		output.writeUTF(trackInfo.getSourceName());
-
-		stream.commitMessage(TRACK_INFO_VERSIONED);
-
-		return Base64.getEncoder().encodeToString(baos.toByteArray());
+		return Base64.getEncoder().encodeToString(TrackInfoCodec.encode(trackInfo));
 	}
 
 	String getTrack();
@@ -0,0 +1,150 @@
+package lavalink.client.player.track;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Decodes many base64 encoded tracks without allocating a stream, a reader and a byte array for each of them.
+ * <p>
+ * A decoder keeps a scratch buffer that grows to fit the largest track it has seen, and reads the tracks from it
+ * with {@link TrackInfoCodec}.
+ * Decoders are therefore not thread safe; {@link #decodeAll(List, boolean)} gives each thread its own.
+ */
+public final class AudioTrackDecoder {
+
+	/* Lists smaller than this are not worth splitting across threads */
+	private static final int PARALLEL_THRESHOLD = 1024;
+	private static final int[] BASE64_VALUES = new int[128];
+
+	static {
+		Arrays.fill(BASE64_VALUES, -1);
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for (int i = 0; i < alphabet.length(); i++) {
+			BASE64_VALUES[alphabet.charAt(i)] = i;
+		}
+	}
+
+	private byte[] scratch = new byte[512];
+	private ByteBuffer buffer = ByteBuffer.wrap(scratch);
+
+	/**
+	 * @param track the base64 encoded track
+	 * @return the info of the track, or null if the track is empty
+	 * @throws IOException if the track is malformed
+	 */
+	public AudioTrackInfo decode(String track) throws IOException {
+		int length = decodeBase64(track);
+		buffer.clear();
+		buffer.limit(length);
+		return TrackInfoCodec.decode(buffer);
+	}
+
+	/**
+	 * @param tracks the base64 encoded tracks
+	 * @return the info of each track, in the same order
+	 * @throws IOException if any of the tracks is malformed
+	 */
+	public List<AudioTrackInfo> decode(List<String> tracks) throws IOException {
+		List<AudioTrackInfo> infos = new ArrayList<>(tracks.size());
+		for (String track : tracks) {
+			infos.add(decode(track));
+		}
+		return infos;
+	}
+
+	/**
+	 * Decodes the tracks, optionally split across the threads of the common pool. Small lists are always decoded
+	 * by the calling thread.
+	 *
+	 * @param tracks   the base64 encoded tracks
+	 * @param parallel whether large lists may be decoded in parallel
+	 * @return the info of each track, in the same order
+	 * @throws IOException if any of the tracks is malformed
+	 */
+	public static List<AudioTrackInfo> decodeAll(List<String> tracks, boolean parallel) throws IOException {
+		if (!parallel || tracks.size() < PARALLEL_THRESHOLD) {
+			return new AudioTrackDecoder().decode(tracks);
+		}
+
+		int chunks = Math.min(Runtime.getRuntime().availableProcessors(), tracks.size() / (PARALLEL_THRESHOLD / 4));
+		int chunkSize = (tracks.size() + chunks - 1) / chunks;
+		AudioTrackInfo[] infos = new AudioTrackInfo[tracks.size()];
+		try {
+			IntStream.range(0, chunks).parallel().forEach(chunk -> {
+				AudioTrackDecoder decoder = new AudioTrackDecoder();
+				int end = Math.min(tracks.size(), (chunk + 1) * chunkSize);
+				for (int i = chunk * chunkSize; i < end; i++) {
+					try {
+						infos[i] = decoder.decode(tracks.get(i));
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return Arrays.asList(infos);
+	}
+
+	/**
+	 * Decodes standard base64 into the scratch buffer, growing it if needed.
+	 *
+	 * @return the amount of decoded bytes
+	 */
+	private int decodeBase64(String encoded) throws IOException {
+		int length = encoded.length();
+		while (length > 0 && encoded.charAt(length - 1) == '=') {
+			length--;
+		}
+		if (encoded.length() - length > 2 || length % 4 == 1) {
+			throw new IOException("Invalid base64 length");
+		}
+
+		int decodedLength = length * 3 / 4;
+		if (scratch.length < decodedLength) {
+			scratch = new byte[Math.max(decodedLength, scratch.length * 2)];
+			buffer = ByteBuffer.wrap(scratch);
+		}
+
+		// Four chars at a time make three bytes. Illegal chars map to -1, which makes the whole group negative
+		int out = 0;
+		int i = 0;
+		for (int groupsEnd = length - length % 4; i < groupsEnd; i += 4) {
+			int bits = value(encoded, i) << 18 | value(encoded, i + 1) << 12 | value(encoded, i + 2) << 6
+					| value(encoded, i + 3);
+			if (bits < 0) throw illegalCharacter(encoded, i);
+			scratch[out++] = (byte) (bits >> 16);
+			scratch[out++] = (byte) (bits >> 8);
+			scratch[out++] = (byte) bits;
+		}
+
+		// The last two or three chars make one or two bytes
+		if (i < length) {
+			int bits = value(encoded, i) << 18 | value(encoded, i + 1) << 12;
+			if (length - i == 3) bits |= value(encoded, i + 2) << 6;
+			if (bits < 0) throw illegalCharacter(encoded, i);
+			scratch[out++] = (byte) (bits >> 16);
+			if (length - i == 3) scratch[out++] = (byte) (bits >> 8);
+		}
+		return out;
+	}
+
+	private static int value(String encoded, int index) {
+		char c = encoded.charAt(index);
+		return c < 128 ? BASE64_VALUES[c] : -1;
+	}
+
+	private static IOException illegalCharacter(String encoded, int groupStart) {
+		int i = groupStart;
+		while (value(encoded, i) >= 0) {
+			i++;
+		}
+		return new IOException("Illegal base64 character " + (int) encoded.charAt(i) + " at " + i);
+	}
+}
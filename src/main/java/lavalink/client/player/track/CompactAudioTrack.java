@@ -0,0 +1,122 @@
+package lavalink.client.player.track;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * A track that only retains its encoded bytes, for holding large amounts of queued tracks.
+ * <p>
+ * {@link DefaultAudioTrack} keeps the base64 string, which is a third larger than the bytes it encodes and takes up
+ * two bytes per char, alongside the decoded info. This track renders both from its bytes whenever they are asked for,
+ * with the info being a {@link LazyAudioTrackInfo} that only decodes the fields that are read.
+ * <p>
+ * Without soft caching the info is created on first use and kept, so it costs a few offsets until its fields are
+ * read, and then the decoded strings of those fields. With soft caching enabled the info and the base64 string are
+ * kept until the garbage collector needs the memory back, and are rendered again afterwards.
+ */
+public class CompactAudioTrack implements AudioTrack {
+
+	private final byte[] bytes;
+	private final boolean softCache;
+	private SoftReference<String> trackCache;
+	private SoftReference<AudioTrackInfo> infoCache;
+	/* Kept when soft caching is disabled */
+	private AudioTrackInfo info;
+	private Object userData;
+
+	/**
+	 * @param bytes     the encoded track, which must not be modified afterwards
+	 * @param softCache whether to keep the rendered base64 string and info in soft references, rather than
+	 *                  rendering the string on every call and keeping the info for as long as this track
+	 */
+	public CompactAudioTrack(byte[] bytes, boolean softCache) {
+		this.bytes = bytes;
+		this.softCache = softCache;
+	}
+
+	/**
+	 * @param trackBase64 the base64 encoded track
+	 */
+	public CompactAudioTrack(String trackBase64) {
+		this(Base64.getDecoder().decode(trackBase64), false);
+	}
+
+	/**
+	 * @return a compact track with the same content and user data
+	 */
+	public static CompactAudioTrack of(AudioTrack track) {
+		if (track instanceof CompactAudioTrack) return (CompactAudioTrack) track;
+
+		CompactAudioTrack compact = new CompactAudioTrack(track.getTrack());
+		compact.setUserData(track.getUserData());
+		return compact;
+	}
+
+	/**
+	 * @return a compact track encoding the given info
+	 */
+	public static CompactAudioTrack of(AudioTrackInfo info) {
+		try {
+			return new CompactAudioTrack(TrackInfoCodec.encode(info), false);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @return a copy of the encoded track
+	 */
+	public byte[] getBytes() {
+		return Arrays.copyOf(bytes, bytes.length);
+	}
+
+	/**
+	 * @return the amount of bytes of the encoded track
+	 */
+	public int getLength() {
+		return bytes.length;
+	}
+
+	@Override
+	public String getTrack() {
+		String track = trackCache == null ? null : trackCache.get();
+		if (track == null) {
+			track = Base64.getEncoder().encodeToString(bytes);
+			if (softCache) trackCache = new SoftReference<>(track);
+		}
+		return track;
+	}
+
+	@Override
+	public AudioTrackInfo getInfo() {
+		AudioTrackInfo info = softCache ? (infoCache == null ? null : infoCache.get()) : this.info;
+		if (info == null) {
+			try {
+				info = LazyAudioTrackInfo.of(bytes);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			if (softCache) infoCache = new SoftReference<>(info);
+			else this.info = info;
+		}
+		return info;
+	}
+
+	@Override
+	public void setUserData(Object userData) {
+		this.userData = userData;
+	}
+
+	@Override
+	public Object getUserData() {
+		return this.userData;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T getUserData(Class<T> klass) {
+		return this.userData == null ? null : (T) this.userData;
+	}
+}
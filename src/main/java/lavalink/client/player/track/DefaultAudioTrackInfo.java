@@ -23,7 +23,7 @@ public class DefaultAudioTrackInfo implements AudioTrackInfo {
 	}
 
 	public static AudioTrackInfo fromJSON(JSONObject json) {
-		return new DefaultAudioTrackInfo(json.getString("title"), json.getString("author"), json.getLong("length"), json.getString("identifier"), json.getBoolean("isStream"), json.getString("uri"), json.getString("sourceName"));
+		return new DefaultAudioTrackInfo(json.getString("title"), TrackStringPool.internShared(json.getString("author")), json.getLong("length"), json.getString("identifier"), json.getBoolean("isStream"), json.getString("uri"), TrackStringPool.internShared(json.getString("sourceName")));
 	}
 
 	@Override
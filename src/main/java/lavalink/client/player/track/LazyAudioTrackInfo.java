@@ -0,0 +1,118 @@
+package lavalink.client.player.track;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+
+/**
+ * A view over an encoded track that only decodes the fields that are asked for.
+ * <p>
+ * Creating the view records where each field starts and checks that the strings are well-formed, so that
+ * malformed tracks fail there and not in a getter. The strings themselves are decoded by their getters, the first
+ * time they are called, so that reading the {@link #getLength() length} of many tracks doesn't decode any of their
+ * strings.
+ */
+public final class LazyAudioTrackInfo implements AudioTrackInfo {
+
+	private static final int TITLE_OFFSET = 4 + 1;
+
+	private final byte[] bytes;
+	private final int authorOffset;
+	private final int lengthOffset;
+	private final int identifierOffset;
+	private final int streamOffset;
+	private final int uriOffset;
+	private final int sourceNameOffset;
+
+	private String title;
+	private String author;
+	private String identifier;
+	private String uri;
+	private String sourceName;
+
+	private LazyAudioTrackInfo(byte[] bytes) throws IOException {
+		this.bytes = bytes;
+		this.authorOffset = TrackInfoCodec.checkUTF(bytes, TITLE_OFFSET);
+		this.lengthOffset = TrackInfoCodec.checkUTF(bytes, authorOffset);
+		this.identifierOffset = lengthOffset + 8;
+		this.streamOffset = TrackInfoCodec.checkUTF(bytes, identifierOffset);
+		if (streamOffset + 2 > bytes.length) throw new EOFException("Track ended unexpectedly");
+		if (bytes[streamOffset + 1] != 0) {
+			this.uriOffset = streamOffset + 2;
+			this.sourceNameOffset = TrackInfoCodec.checkUTF(bytes, uriOffset);
+		} else {
+			this.uriOffset = -1;
+			this.sourceNameOffset = streamOffset + 2;
+		}
+		TrackInfoCodec.checkUTF(bytes, sourceNameOffset);
+	}
+
+	/**
+	 * @param bytes the encoded track, which must not be modified afterwards
+	 * @return a view over the track, or null if the track is empty
+	 * @throws IOException if the track is truncated or one of its strings is malformed
+	 */
+	public static LazyAudioTrackInfo of(byte[] bytes) throws IOException {
+		if (bytes.length < 4) throw new EOFException("Track ended unexpectedly");
+
+		int messageSize = ((bytes[0] & 0x3F) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+		if (messageSize == 0) {
+			return null;
+		}
+		return new LazyAudioTrackInfo(bytes);
+	}
+
+	@Override
+	public String getTitle() {
+		if (title == null) title = read(TITLE_OFFSET, false);
+		return title;
+	}
+
+	@Override
+	public String getAuthor() {
+		if (author == null) author = read(authorOffset, true);
+		return author;
+	}
+
+	@Override
+	public long getLength() {
+		long length = 0;
+		for (int i = lengthOffset; i < lengthOffset + 8; i++) {
+			length = (length << 8) | (bytes[i] & 0xFF);
+		}
+		return length;
+	}
+
+	@Override
+	public String getIdentifier() {
+		if (identifier == null) identifier = read(identifierOffset, false);
+		return identifier;
+	}
+
+	@Override
+	public boolean isStream() {
+		return bytes[streamOffset] != 0;
+	}
+
+	@Override
+	public String getUri() {
+		if (uriOffset < 0) return null;
+		if (uri == null) uri = read(uriOffset, false);
+		return uri;
+	}
+
+	@Override
+	public String getSourceName() {
+		if (sourceName == null) sourceName = read(sourceNameOffset, true);
+		return sourceName;
+	}
+
+	private String read(int offset, boolean pooled) {
+		try {
+			String text = TrackInfoCodec.readUTF(bytes, offset);
+			return pooled ? TrackStringPool.internShared(text) : text;
+		} catch (UTFDataFormatException e) {
+			throw new IllegalStateException("String was checked when the view was created", e);
+		}
+	}
+}
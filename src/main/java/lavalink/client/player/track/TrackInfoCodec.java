@@ -0,0 +1,346 @@
+package lavalink.client.player.track;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads and writes the binary track format directly on byte arrays and buffers.
+ * <p>
+ * The format is the one of {@link MessageInput} and {@link MessageOutput}: an int holding the size of the message
+ * and its flags, followed by the {@link AudioTrack#TRACK_INFO_VERSION version} and the fields of the track, with
+ * strings in modified UTF-8 as used by {@link java.io.DataOutput#writeUTF(String)}.
+ */
+public final class TrackInfoCodec {
+
+	private static final int MAX_UTF_LENGTH = 65535;
+	/* Tracks are encoded into a scratch array first, so that each field is only read once. Larger arrays are not kept */
+	private static final int MAX_SCRATCH_LENGTH = 16384;
+	private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[1024]);
+
+	private TrackInfoCodec() {
+	}
+
+	/**
+	 * @param bytes the encoded track
+	 * @return the info of the track, or null if the track is empty
+	 * @throws IOException if the track is malformed
+	 */
+	public static AudioTrackInfo decode(byte[] bytes) throws IOException {
+		return decode(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Decodes a track from the position of the buffer, which is advanced past the fields that were read.
+	 *
+	 * @param buffer the encoded track
+	 * @return the info of the track, or null if the track is empty
+	 * @throws IOException if the track is malformed
+	 */
+	public static AudioTrackInfo decode(ByteBuffer buffer) throws IOException {
+		try {
+			int messageSize = buffer.getInt() & 0x3FFFFFFF;
+			if (messageSize == 0) {
+				return null;
+			}
+
+			buffer.get();
+
+			return new DefaultAudioTrackInfo(
+					readUTF(buffer),
+					TrackStringPool.internShared(readUTF(buffer)),
+					buffer.getLong(),
+					readUTF(buffer),
+					buffer.get() != 0,
+					buffer.get() != 0 ? readUTF(buffer) : null,
+					TrackStringPool.internShared(readUTF(buffer))
+			);
+		} catch (BufferUnderflowException e) {
+			throw new EOFException("Track ended unexpectedly");
+		}
+	}
+
+	/**
+	 * @return the encoded track
+	 * @throws IOException if a field is too long to be encoded
+	 */
+	public static byte[] encode(AudioTrackInfo trackInfo) throws IOException {
+		// Modified UTF-8 takes up to three bytes per char
+		int maxLength = 4 + 1 + 8 + 1 + 1 + 2 * 5 + 3 * (trackInfo.getTitle().length()
+				+ trackInfo.getAuthor().length()
+				+ trackInfo.getIdentifier().length()
+				+ (trackInfo.getUri() != null ? trackInfo.getUri().length() : 0)
+				+ trackInfo.getSourceName().length());
+		byte[] scratch = SCRATCH.get();
+		if (scratch.length < maxLength) {
+			scratch = new byte[maxLength];
+			if (maxLength <= MAX_SCRATCH_LENGTH) SCRATCH.set(scratch);
+		}
+
+		int offset = 4;
+		scratch[offset++] = (byte) AudioTrack.TRACK_INFO_VERSION;
+		offset = writeUTF(scratch, offset, trackInfo.getTitle());
+		offset = writeUTF(scratch, offset, trackInfo.getAuthor());
+		offset = writeLong(scratch, offset, trackInfo.getLength());
+		offset = writeUTF(scratch, offset, trackInfo.getIdentifier());
+		scratch[offset++] = (byte) (trackInfo.isStream() ? 1 : 0);
+		scratch[offset++] = (byte) (trackInfo.getUri() != null ? 1 : 0);
+		if (trackInfo.getUri() != null) {
+			offset = writeUTF(scratch, offset, trackInfo.getUri());
+		}
+		offset = writeUTF(scratch, offset, trackInfo.getSourceName());
+		writeInt(scratch, 0, (offset - 4) | AudioTrack.TRACK_INFO_VERSIONED << 30);
+
+		return Arrays.copyOf(scratch, offset);
+	}
+
+	/**
+	 * Encodes a track at the position of the buffer, which is advanced past it.
+	 *
+	 * @throws IOException if a field is too long to be encoded
+	 * @throws java.nio.BufferOverflowException if the buffer has less than {@link #encodedLength(AudioTrackInfo)}
+	 *                                          bytes remaining
+	 */
+	public static void encode(AudioTrackInfo trackInfo, ByteBuffer buffer) throws IOException {
+		// The header is filled in once the size of the message is known, so that each field is only measured once
+		int start = buffer.position();
+		buffer.putInt(0);
+		buffer.put((byte) AudioTrack.TRACK_INFO_VERSION);
+
+		writeUTF(buffer, trackInfo.getTitle());
+		writeUTF(buffer, trackInfo.getAuthor());
+		buffer.putLong(trackInfo.getLength());
+		writeUTF(buffer, trackInfo.getIdentifier());
+		buffer.put((byte) (trackInfo.isStream() ? 1 : 0));
+		buffer.put((byte) (trackInfo.getUri() != null ? 1 : 0));
+		if (trackInfo.getUri() != null) {
+			writeUTF(buffer, trackInfo.getUri());
+		}
+		writeUTF(buffer, trackInfo.getSourceName());
+
+		int messageSize = buffer.position() - start - 4;
+		buffer.putInt(start, messageSize | AudioTrack.TRACK_INFO_VERSIONED << 30);
+	}
+
+	/**
+	 * @return the amount of bytes the track takes up once encoded, including the message header
+	 * @throws IOException if a field is too long to be encoded
+	 */
+	public static int encodedLength(AudioTrackInfo trackInfo) throws IOException {
+		int length = 4 + 1;
+		length += 2 + utfLength(trackInfo.getTitle());
+		length += 2 + utfLength(trackInfo.getAuthor());
+		length += 8;
+		length += 2 + utfLength(trackInfo.getIdentifier());
+		length += 1 + 1;
+		if (trackInfo.getUri() != null) {
+			length += 2 + utfLength(trackInfo.getUri());
+		}
+		length += 2 + utfLength(trackInfo.getSourceName());
+		return length;
+	}
+
+	private static int utfLength(String text) throws UTFDataFormatException {
+		int length = text.length();
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 0x800) {
+				length += 2;
+			} else if (c >= 0x80 || c == 0) {
+				length += 1;
+			}
+		}
+
+		if (length > MAX_UTF_LENGTH) {
+			throw new UTFDataFormatException("Encoded string too long: " + length + " bytes");
+		}
+		return length;
+	}
+
+	private static void writeUTF(ByteBuffer buffer, String text) throws UTFDataFormatException {
+		int length = utfLength(text);
+		buffer.putShort((short) length);
+		if (buffer.hasArray()) {
+			if (buffer.remaining() < length) throw new BufferOverflowException();
+			int position = buffer.position();
+			writeChars(buffer.array(), buffer.arrayOffset() + position, text);
+			buffer.position(position + length);
+			return;
+		}
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 0x800) {
+				buffer.put((byte) (0xE0 | (c >> 12)));
+				buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else if (c >= 0x80 || c == 0) {
+				buffer.put((byte) (0xC0 | (c >> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else {
+				buffer.put((byte) c);
+			}
+		}
+	}
+
+	/**
+	 * Writes the string along with its length, which is only known once it has been written.
+	 *
+	 * @return the offset past the string
+	 */
+	private static int writeUTF(byte[] bytes, int offset, String text) throws UTFDataFormatException {
+		int end = writeChars(bytes, offset + 2, text);
+		int length = end - offset - 2;
+		if (length > MAX_UTF_LENGTH) {
+			throw new UTFDataFormatException("Encoded string too long: " + length + " bytes");
+		}
+		bytes[offset] = (byte) (length >> 8);
+		bytes[offset + 1] = (byte) length;
+		return end;
+	}
+
+	private static int writeLong(byte[] bytes, int offset, long value) {
+		writeInt(bytes, offset, (int) (value >> 32));
+		writeInt(bytes, offset + 4, (int) value);
+		return offset + 8;
+	}
+
+	private static void writeInt(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >> 24);
+		bytes[offset + 1] = (byte) (value >> 16);
+		bytes[offset + 2] = (byte) (value >> 8);
+		bytes[offset + 3] = (byte) value;
+	}
+
+	/**
+	 * @return the offset past the chars
+	 */
+	private static int writeChars(byte[] bytes, int offset, String text) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 0x800) {
+				bytes[offset++] = (byte) (0xE0 | (c >> 12));
+				bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+			} else if (c >= 0x80 || c == 0) {
+				bytes[offset++] = (byte) (0xC0 | (c >> 6));
+				bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+			} else {
+				bytes[offset++] = (byte) c;
+			}
+		}
+		return offset;
+	}
+
+	private static String readUTF(ByteBuffer buffer) throws UTFDataFormatException {
+		int length = buffer.getShort() & 0xFFFF;
+		if (buffer.remaining() < length) {
+			throw new BufferUnderflowException();
+		}
+
+		byte[] bytes;
+		int offset;
+		if (buffer.hasArray()) {
+			bytes = buffer.array();
+			offset = buffer.arrayOffset() + buffer.position();
+		} else {
+			bytes = new byte[length];
+			offset = 0;
+			buffer.duplicate().get(bytes);
+		}
+		buffer.position(buffer.position() + length);
+		return decodeUTF(bytes, offset, length);
+	}
+
+	/**
+	 * Reads the string starting at the given offset, which points at its length
+	 */
+	static String readUTF(byte[] bytes, int offset) throws UTFDataFormatException {
+		return decodeUTF(bytes, offset + 2, utfLength(bytes, offset));
+	}
+
+	/**
+	 * @return the offset just past the string starting at the given offset, which points at its length
+	 */
+	static int skipUTF(byte[] bytes, int offset) throws EOFException {
+		if (offset + 2 > bytes.length) throw new EOFException("Track ended unexpectedly");
+		int end = offset + 2 + utfLength(bytes, offset);
+		if (end > bytes.length) throw new EOFException("Track ended unexpectedly");
+		return end;
+	}
+
+	/**
+	 * Checks that the string starting at the given offset, which points at its length, is well-formed modified
+	 * UTF-8 without decoding it.
+	 *
+	 * @return the offset just past the string
+	 */
+	static int checkUTF(byte[] bytes, int offset) throws IOException {
+		int end = skipUTF(bytes, offset);
+		int start = offset + 2;
+		int i = start;
+		while (i < end) {
+			int b = bytes[i++] & 0xFF;
+			if (b < 0x80) continue;
+
+			int continuations;
+			if ((b & 0xE0) == 0xC0) {
+				continuations = 1;
+			} else if ((b & 0xF0) == 0xE0) {
+				continuations = 2;
+			} else {
+				throw malformed(i - start);
+			}
+			if (i + continuations > end) throw malformed(i - start);
+			for (int j = 0; j < continuations; j++) {
+				if ((bytes[i++] & 0xC0) != 0x80) throw malformed(i - start);
+			}
+		}
+		return end;
+	}
+
+	private static int utfLength(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+	}
+
+	private static String decodeUTF(byte[] bytes, int offset, int length) throws UTFDataFormatException {
+		char[] chars = new char[length];
+		int count = 0;
+		int i = offset;
+		int end = offset + length;
+
+		// Most fields are plain ASCII
+		while (i < end && bytes[i] >= 0) {
+			chars[count++] = (char) bytes[i++];
+		}
+
+		while (i < end) {
+			int b = bytes[i++] & 0xFF;
+			if (b < 0x80) {
+				chars[count++] = (char) b;
+			} else if ((b & 0xE0) == 0xC0) {
+				if (i >= end) throw malformed(i - offset);
+				int b2 = bytes[i++];
+				if ((b2 & 0xC0) != 0x80) throw malformed(i - offset);
+				chars[count++] = (char) (((b & 0x1F) << 6) | (b2 & 0x3F));
+			} else if ((b & 0xF0) == 0xE0) {
+				if (i + 1 >= end) throw malformed(i - offset);
+				int b2 = bytes[i++];
+				int b3 = bytes[i++];
+				if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) throw malformed(i - offset);
+				chars[count++] = (char) (((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+			} else {
+				throw malformed(i - offset);
+			}
+		}
+		return new String(chars, 0, count);
+	}
+
+	private static UTFDataFormatException malformed(int position) {
+		return new UTFDataFormatException("Malformed input around byte " + position + " of string");
+	}
+}
@@ -0,0 +1,131 @@
+package lavalink.client.player.track;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deduplicates the strings that repeat across many tracks, which are their authors and source names. Titles,
+ * identifiers and uris are left out, as they are almost always unique to a track.
+ * <p>
+ * Decoded tracks otherwise hold their own copy of each of these strings. Once a pool is installed with
+ * {@link #setShared(TrackStringPool)}, {@link AudioTrack#decode(String)}, {@link TrackInfoCodec} and
+ * {@link DefaultAudioTrackInfo#fromJSON(org.json.JSONObject)} and the default codec hand out the pooled instance instead.
+ * <p>
+ * The pool only holds weak references, so strings no longer used by any track are reclaimed by the garbage
+ * collector. It is also bounded: once full, new strings are returned as they are until entries have been reclaimed.
+ */
+public final class TrackStringPool {
+
+	private static final int SEGMENTS = 16;
+
+	private static volatile TrackStringPool shared = null;
+
+	private final Segment[] segments = new Segment[SEGMENTS];
+	private final int maxSizePerSegment;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong charsDeduplicated = new AtomicLong();
+
+	/**
+	 * @param maxSize the amount of distinct strings the pool may hold
+	 */
+	public TrackStringPool(int maxSize) {
+		if (maxSize < SEGMENTS) throw new IllegalArgumentException("Max size must be at least " + SEGMENTS);
+		this.maxSizePerSegment = maxSize / SEGMENTS;
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment();
+		}
+	}
+
+	/**
+	 * @return the pool used when decoding tracks, or null if strings are not deduplicated
+	 */
+	public static TrackStringPool getShared() {
+		return shared;
+	}
+
+	/**
+	 * @param pool the pool to use when decoding tracks, or null to stop deduplicating strings
+	 */
+	public static void setShared(TrackStringPool pool) {
+		shared = pool;
+	}
+
+	/**
+	 * @return the pooled instance of the string, or the string itself if there is no shared pool
+	 */
+	public static String internShared(String text) {
+		TrackStringPool pool = shared;
+		return pool == null ? text : pool.intern(text);
+	}
+
+	/**
+	 * @return the pooled instance equal to the string, which is the string itself if it was not pooled yet
+	 */
+	public String intern(String text) {
+		if (text == null) return null;
+
+		Segment segment = segments[(text.hashCode() & 0x7FFFFFFF) % SEGMENTS];
+		synchronized (segment) {
+			WeakReference<String> reference = segment.strings.get(text);
+			String pooled = reference == null ? null : reference.get();
+			if (pooled != null) {
+				hits.incrementAndGet();
+				// The caller may already hold the pooled instance, which leaves nothing to deduplicate
+				if (pooled != text) charsDeduplicated.addAndGet(pooled.length());
+				return pooled;
+			}
+
+			misses.incrementAndGet();
+			if (segment.strings.size() >= maxSizePerSegment) {
+				rejected.incrementAndGet();
+				return text;
+			}
+			segment.strings.put(text, new WeakReference<>(text));
+			return text;
+		}
+	}
+
+	/**
+	 * @return the amount of strings in the pool, including ones the garbage collector is about to reclaim
+	 */
+	public int getSize() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.strings.size();
+			}
+		}
+		return size;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the amount of strings that were not pooled because the pool was full
+	 */
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	/**
+	 * @return the summed length of the strings replaced by a pooled instance, which is roughly the amount of chars
+	 *         no longer retained twice
+	 */
+	public long getCharsDeduplicated() {
+		return charsDeduplicated.get();
+	}
+
+	private static class Segment {
+		private final WeakHashMap<String, WeakReference<String>> strings = new WeakHashMap<>();
+	}
+}